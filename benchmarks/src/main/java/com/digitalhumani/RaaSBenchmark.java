@@ -0,0 +1,72 @@
+package com.digitalhumani;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.config.RaaSOptions;
+import com.digitalhumani.enterprise.RaaSEnterprise;
+import com.digitalhumani.http.RaaSTransport;
+import com.digitalhumani.tree.RaaSTreePlanter;
+import com.digitalhumani.tree.models.TreesPlanted;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end cost of planting a tree through {@link RaaS}, against a local WireMock stub of the RaaS API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RaaSBenchmark {
+
+    private static final String API_KEY = "benchmark";
+    private static final String ENTERPRISE_ID = "123";
+    private static final String PROJECT_ID = "456";
+    private static final String USER = "JMH";
+
+    private WireMockServer raasMock;
+    private RaaS raas;
+
+    @Setup
+    public void setup() {
+        this.raasMock = new WireMockServer(wireMockConfig().dynamicPort());
+        this.raasMock.start();
+        this.raasMock.stubFor(post("/tree").willReturn(okJson(String.format(
+                "{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\", \"created\": \"2019-05-17T00:36:25.797Z\", "
+                        + "\"treeCount\": 1, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }",
+                ENTERPRISE_ID, PROJECT_ID, USER))));
+
+        String url = "http://localhost:" + this.raasMock.port();
+        RaaSOptions options = new RaaSOptions();
+        RaaSTransport transport = new RaaSTransport(options);
+        this.raas = new RaaS(new RaaSTreePlanter(url, API_KEY, transport, options),
+                new RaaSEnterprise(url, API_KEY, transport, options), url, ENTERPRISE_ID, API_KEY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.raasMock.stop();
+    }
+
+    @Benchmark
+    public TreesPlanted plantATree() throws Exception {
+        return this.raas.plantATree(PROJECT_ID, USER).get();
+    }
+}
@@ -0,0 +1,69 @@
+package com.digitalhumani.tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.tree.models.TreePlantingRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Appends to the outbox's {@link PlantingJournal}, which all callers of plantATree go through when the outbox
+ * is enabled. Records are read and checkpointed as they are appended so the journal's segments are recycled,
+ * as they are by the outbox's background sender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantingJournalBenchmark {
+
+    private Path directory;
+    private PlantingJournal journal;
+    private TreePlantingRequest request;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("raas-outbox");
+        this.journal = new PlantingJournal(this.directory);
+        this.request = new TreePlantingRequest("123", "456", "JMH", 1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        this.journal.close();
+        try (var files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void append() throws IOException {
+        this.journal.append(this.request);
+        List<PlantingJournal.Record> records = this.journal.read(1);
+        if (!records.isEmpty()) {
+            this.journal.checkpoint(records.get(0).end);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.digitalhumani.tree;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * A fixed response, so parsing can be measured without any network I/O.
+ */
+class StubHttpResponse implements HttpResponse<String> {
+
+    private final int statusCode;
+    private final String body;
+
+    StubHttpResponse(int statusCode, String body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    @Override
+    public int statusCode() {
+        return this.statusCode;
+    }
+
+    @Override
+    public String body() {
+        return this.body;
+    }
+
+    @Override
+    public HttpRequest request() {
+        return null;
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return null;
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
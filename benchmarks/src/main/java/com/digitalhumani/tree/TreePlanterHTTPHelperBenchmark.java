@@ -0,0 +1,80 @@
+package com.digitalhumani.tree;
+
+import java.net.http.HttpRequest;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.json.JacksonJsonCodec;
+import com.digitalhumani.json.RaaSJsonCodec;
+import com.digitalhumani.json.interfaces.JsonCodec;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request costs of {@link TreePlanterHTTPHelper}, with both the built-in and the Jackson JSON codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreePlanterHTTPHelperBenchmark {
+
+    private static final String RESPONSE_BODY = "{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\", "
+            + "\"created\": \"2019-05-17T00:36:25.797Z\", \"treeCount\": 1, \"enterpriseId\": \"123\", "
+            + "\"projectId\": \"456\", \"user\": \"JMH\" }";
+
+    @Param({ "raas", "jackson" })
+    public String codec;
+
+    private TreePlanterHTTPHelper helper;
+    private TreePlantingRequest request;
+    private byte[] requestBody;
+    private List<String> params;
+    private StubHttpResponse response;
+
+    @Setup
+    public void setup() throws RaaSException {
+        JsonCodec jsonCodec = this.codec.equals("jackson") ? new JacksonJsonCodec() : new RaaSJsonCodec();
+        this.helper = new TreePlanterHTTPHelper("https://api.sandbox.digitalhumani.com", "benchmark", jsonCodec);
+        this.request = new TreePlantingRequest("123", "456", "JMH", 1);
+        this.requestBody = this.helper.toJsonBytes(this.request);
+        this.params = Collections.singletonList("eef9f369-9ae0-45b8-ab07-10650f53a71e");
+        this.response = new StubHttpResponse(200, RESPONSE_BODY);
+    }
+
+    @Benchmark
+    public byte[] toJson() throws RaaSException {
+        return this.helper.toJsonBytes(this.request);
+    }
+
+    @Benchmark
+    public TreesPlanted parseResponse() {
+        return this.helper.parseResponse().apply(this.response);
+    }
+
+    @Benchmark
+    public HttpRequest buildGetRequest() {
+        return this.helper.buildGetRequest(this.params);
+    }
+
+    @Benchmark
+    public HttpRequest buildPostRequest() {
+        return this.helper.buildPostRequest(this.requestBody);
+    }
+}
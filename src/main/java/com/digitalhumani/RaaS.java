@@ -1,19 +1,31 @@
 package com.digitalhumani;
 
 import java.io.IOException;
+import java.time.YearMonth;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 
 import javax.naming.ConfigurationException;
 
 import com.digitalhumani.config.Config;
+import com.digitalhumani.config.RaaSOptions;
 import com.digitalhumani.enterprise.RaaSEnterprise;
 import com.digitalhumani.enterprise.interfaces.Enterprise;
 import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.RaaSTransport;
 import com.digitalhumani.models.RaaSResult;
 import com.digitalhumani.tree.RaaSTreePlanter;
+import com.digitalhumani.tree.interfaces.TreeLookupCallback;
 import com.digitalhumani.tree.interfaces.TreePlanter;
+import com.digitalhumani.tree.models.BatchDeleteResult;
+import com.digitalhumani.tree.models.BatchLookupResult;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
 
 /**
@@ -24,7 +36,7 @@ import com.digitalhumani.tree.models.TreesPlanted;
  * 
  * Please see the <a href="https://github.com/digitalhumani/java-sdk">README</a> in the Github repo for more info.
  */
-public final class RaaS {
+public final class RaaS implements AutoCloseable {
     private String apiKey;
     private String environment;
     private String enterpriseId;
@@ -84,6 +96,18 @@ public final class RaaS {
      * @throws ConfigurationException if an invalid `raas.properties` is detected.
      */
     public RaaS() throws ConfigurationException {
+        this(new RaaSOptions());
+    }
+
+    /**
+     * Public constructor. Relies on a valid `raas.properties` being configured in the `resources` folder of the project.
+     * 
+     * Please see the <a href="https://github.com/digitalhumani/java-sdk">README</a> in the Github repo for more info.
+     * 
+     * @param options optional settings, such as those of the underlying HTTP transport.
+     * @throws ConfigurationException if an invalid `raas.properties` is detected.
+     */
+    public RaaS(RaaSOptions options) throws ConfigurationException {
         String apiKeyFromConfig = "";
         String enterpriseIdFromConfig = "";
         String environmentFromConfig = "";
@@ -109,8 +133,9 @@ public final class RaaS {
 
         setUrl();
 
-        this.treePlanter = new RaaSTreePlanter(this.url, this.apiKey);
-        this.enterprise = new RaaSEnterprise(this.url, this.apiKey);
+        RaaSTransport transport = new RaaSTransport(options);
+        this.treePlanter = new RaaSTreePlanter(this.url, this.apiKey, transport, options);
+        this.enterprise = new RaaSEnterprise(this.url, this.apiKey, transport, options);
     }
 
     /**
@@ -124,6 +149,22 @@ public final class RaaS {
      * @throws ConfigurationException if invalid configuration items are detected.
      */
     public RaaS(String apiKey, String environment, String enterpriseId) throws ConfigurationException {
+        this(apiKey, environment, enterpriseId, new RaaSOptions());
+    }
+
+    /**
+     * Public constructor. Relies on the required configuration items being passed as parameters.
+     * 
+     * Please see the <a href="https://github.com/digitalhumani/java-sdk">README</a> in the Github repo for more info.
+     * 
+     * @param apiKey your unique API key
+     * @param environment the environment against which the requests will be made (either 'sandbox' or 'production').
+     * @param enterpriseId your unique enterprise Id.
+     * @param options optional settings, such as those of the underlying HTTP transport.
+     * @throws ConfigurationException if invalid configuration items are detected.
+     */
+    public RaaS(String apiKey, String environment, String enterpriseId, RaaSOptions options)
+            throws ConfigurationException {
 
         validateConfiguration(apiKey, enterpriseId, environment);
 
@@ -133,8 +174,9 @@ public final class RaaS {
 
         setUrl();
 
-        this.treePlanter = new RaaSTreePlanter(this.url, this.apiKey);
-        this.enterprise = new RaaSEnterprise(this.url, this.apiKey);
+        RaaSTransport transport = new RaaSTransport(options);
+        this.treePlanter = new RaaSTreePlanter(this.url, this.apiKey, transport, options);
+        this.enterprise = new RaaSEnterprise(this.url, this.apiKey, transport, options);
     }
 
     /**
@@ -167,6 +209,58 @@ public final class RaaS {
         return this.treePlanter.plantSomeTrees(this.enterpriseId, projectId, user, treeCount);
     }
 
+    /**
+     * Plants multiple trees in one request, at most once per idempotency key.
+     * 
+     * Sending the same planting again with the same key (e.g. when retrying it, or when the event that
+     * triggered it is delivered twice) returns the original result rather than planting the trees again,
+     * within the window set by {@link RaaSOptions#setIdempotency(java.time.Duration, int)}. The key is also
+     * sent to the RaaS API so it can recognise the duplicate itself.
+     * 
+     * @param projectId the Id of the project this tree request relates to.
+     * @param user an arbitary user (or system) identifier.
+     * @param treeCount the number of trees to be planted.
+     * @param idempotencyKey a key unique to this planting, e.g. the Id of the event that triggered it.
+     * @return a {@code CompletableFuture<TreesPlanted>} containing the details of the tree planting request (including it's Id (uuid)).
+     * @throws RaaSException if an error occurs while making the request.
+     */
+    public CompletableFuture<TreesPlanted> plantSomeTrees(String projectId, String user, Integer treeCount,
+            String idempotencyKey) throws RaaSException {
+        return this.treePlanter.plantTrees(
+                new TreePlantingRequest(this.enterpriseId, projectId, user, treeCount, idempotencyKey));
+    }
+
+    /**
+     * Sends many tree planting requests, keeping at most {@link RaaSOptions#getMaxConcurrentRequests()} of
+     * them in flight at once.
+     * 
+     * Unlike the other methods, each request carries its own enterprise Id.
+     * 
+     * @param requests the tree planting requests to send.
+     * @return a {@code CompletableFuture<BulkPlantingResult>} containing the result of each request (in the order
+     * supplied) and a summary of how many succeeded.
+     */
+    public CompletableFuture<BulkPlantingResult> plantTreesBulk(Collection<TreePlantingRequest> requests) {
+        return this.treePlanter.plantTreesBulk(requests);
+    }
+
+    /**
+     * Sends the tree planting requests published by {@code requests}, and publishes their results as the
+     * responses arrive (so not necessarily in the order of the requests).
+     * 
+     * Requests are only taken from the publisher while fewer than {@link RaaSOptions#getMaxConcurrentRequests()}
+     * requests are in flight or waiting for the subscriber, so a slow RaaS API or a slow subscriber slows the
+     * publisher down. A request that fails is published as a {@code TreesPlanted} carrying the exception.
+     * 
+     * Unlike the other methods, each request carries its own enterprise Id.
+     * 
+     * @param requests a publisher of the tree planting requests to send.
+     * @return a publisher of the results. Each subscriber subscribes to {@code requests} afresh.
+     */
+    public Flow.Publisher<TreesPlanted> plantTreesStream(Flow.Publisher<TreePlantingRequest> requests) {
+        return this.treePlanter.plantTreesStream(requests);
+    }
+
     /**
      * Retrieves the details of a tree planting request by it's Id (uuid).
      * 
@@ -181,6 +275,23 @@ public final class RaaS {
         return this.treePlanter.getATreePlanted(uuid);
     }
 
+    /**
+     * Retrieves the details of many tree planting requests by their Ids (uuids), e.g. to reconcile receipts.
+     * 
+     * At most {@link RaaSOptions#getMaxConcurrentRequests()} lookups are in flight at once, and uuids are only
+     * taken from {@code uuids} as earlier lookups complete. Each outcome is passed to {@code callback} as soon as
+     * it arrives rather than being collected, so batches of any size can be looked up in constant memory.
+     * 
+     * @param uuids the Ids of the tree planting requests to retrieve.
+     * @param callback receives each request found, each uuid not found and each lookup that failed.
+     * @return a {@code CompletableFuture<BatchLookupResult>} that completes, with the number of each outcome,
+     * once every uuid has been passed to the callback.
+     */
+    public CompletableFuture<BatchLookupResult> getTreesPlanted(Collection<String> uuids,
+            TreeLookupCallback callback) {
+        return this.treePlanter.getTreesPlanted(uuids, callback);
+    }
+
     /**
      * Deletes a previously submitted tree planting request by its Id (uuid)
      * 
@@ -193,6 +304,21 @@ public final class RaaS {
         return this.treePlanter.deleteATreePlanted(uuid);
     }
 
+    /**
+     * Deletes many previously submitted tree planting requests by their Ids (uuids), e.g. when a batch of
+     * orders is cancelled.
+     * 
+     * At most {@link RaaSOptions#getMaxConcurrentRequests()} delete requests are in flight at once, so a large
+     * sweep neither floods the RaaS API nor exhausts the connection pool.
+     * 
+     * @param uuids the Ids of the tree planting requests to delete.
+     * @return a {@code CompletableFuture<BatchDeleteResult>} containing the outcome (status code) of each delete
+     * request, in the order supplied, and how many were deleted, not found or failed.
+     */
+    public CompletableFuture<BatchDeleteResult> deleteTreesPlanted(Collection<String> uuids) {
+        return this.treePlanter.deleteTreesPlanted(uuids);
+    }
+
     /**
      * Gets the total number of trees planted for a given month
      * @param month the required month, e.g. '2022-05'
@@ -203,4 +329,133 @@ public final class RaaS {
         throws RaaSException {
             return this.enterprise.getTreesPlantedForMonth(this.enterpriseId, month);
     }
+
+    /**
+     * Gets the number of trees planted in each month of a range, and in total.
+     * 
+     * The months are requested in parallel, keeping at most {@link RaaSOptions#getMaxConcurrentRequests()}
+     * requests in flight at once. A month whose count could not be retrieved is reported with its exception,
+     * and is left out of the total.
+     * 
+     * @param from the first month of the range.
+     * @param to the last month of the range (inclusive).
+     * @return a {@code CompletableFuture<TreesPlantedForRange>} containing the result of each month and the total.
+     */
+    public CompletableFuture<TreesPlantedForRange> getTreesPlantedForRange(YearMonth from, YearMonth to) {
+        return this.enterprise.getTreesPlantedForRange(this.enterpriseId, from, to);
+    }
+
+    /**
+     * Plants a single tree, waiting for the result.
+     * 
+     * The blocking methods suit code that runs on virtual threads (Java 21 and later), where waiting does not
+     * hold up an operating system thread: there the request is sent blocking on the calling thread, unless it
+     * is hedged. On other threads they wait for the same asynchronous request as
+     * {@link #plantATree(String, String)}.
+     * 
+     * @param projectId the Id of the project this tree request relates to.
+     * @param user an arbitary user (or system) identifier.
+     * @return the details of the tree planting request (including it's Id (uuid)).
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public TreesPlanted plantATreeBlocking(String projectId, String user) throws RaaSException {
+        return await(RaaSTransport.blocking(() -> plantATree(projectId, user)));
+    }
+
+    /**
+     * Plants multiple trees in one request, waiting for the result.
+     * 
+     * @param projectId the Id of the project this tree request relates to.
+     * @param user an arbitary user (or system) identifier.
+     * @param treeCount the number of trees to be planted.
+     * @return the details of the tree planting request (including it's Id (uuid)).
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public TreesPlanted plantSomeTreesBlocking(String projectId, String user, Integer treeCount)
+            throws RaaSException {
+        return await(RaaSTransport.blocking(() -> plantSomeTrees(projectId, user, treeCount)));
+    }
+
+    /**
+     * Plants multiple trees in one request, at most once per idempotency key, waiting for the result.
+     * 
+     * @param projectId the Id of the project this tree request relates to.
+     * @param user an arbitary user (or system) identifier.
+     * @param treeCount the number of trees to be planted.
+     * @param idempotencyKey a key unique to this planting, e.g. the Id of the event that triggered it.
+     * @return the details of the tree planting request (including it's Id (uuid)).
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public TreesPlanted plantSomeTreesBlocking(String projectId, String user, Integer treeCount,
+            String idempotencyKey) throws RaaSException {
+        return await(RaaSTransport.blocking(() -> plantSomeTrees(projectId, user, treeCount, idempotencyKey)));
+    }
+
+    /**
+     * Retrieves the details of a tree planting request by it's Id (uuid), waiting for the result.
+     * 
+     * @param uuid the Id of the tree planting request to retrieve.
+     * @return the details of the tree planting request
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public TreesPlanted getATreePlantedBlocking(String uuid) throws RaaSException {
+        return await(RaaSTransport.blocking(() -> getATreePlanted(uuid)));
+    }
+
+    /**
+     * Deletes a previously submitted tree planting request by its Id (uuid), waiting for the result.
+     * 
+     * @param uuid the Id of the tree planting request to delete.
+     * @return Boolean indicating success / failure
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public Boolean deleteATreePlantedBlocking(String uuid) throws RaaSException {
+        return await(RaaSTransport.blocking(() -> deleteATreePlanted(uuid)));
+    }
+
+    /**
+     * Gets the total number of trees planted for a given month, waiting for the result.
+     * 
+     * @param month the required month, e.g. '2022-05'
+     * @return A TreePlantedForMonth instance with the total number of trees planted
+     * @throws RaaSException if an error occurs while making the request, or the thread is interrupted.
+     */
+    public TreesPlantedForMonth getTreesPlantedForMonthBlocking(String month) throws RaaSException {
+        return await(RaaSTransport.blocking(() -> getTreesPlantedForMonth(month)));
+    }
+
+    /**
+     * Gets the number of trees planted in each month of a range, and in total, waiting for the result.
+     * 
+     * @param from the first month of the range.
+     * @param to the last month of the range (inclusive).
+     * @return the result of each month and the total.
+     * @throws RaaSException if the thread is interrupted.
+     */
+    public TreesPlantedForRange getTreesPlantedForRangeBlocking(YearMonth from, YearMonth to) throws RaaSException {
+        return await(getTreesPlantedForRange(from, to));
+    }
+
+    /**
+     * Stops the background work of this instance, i.e. the outbox if it is enabled. Plantings in the outbox
+     * that have not been sent yet stay in its journal, and are sent when an instance is next created with
+     * the same outbox directory.
+     */
+    @Override
+    public void close() {
+        this.treePlanter.close();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws RaaSException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            RaaSException raasEx = new RaaSException("Interrupted while waiting for the RaaS API.");
+            raasEx.initCause(ex);
+            throw raasEx;
+        } catch (ExecutionException ex) {
+            throw RaaSException.from(ex.getCause());
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.digitalhumani.concurrent;
+
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+/**
+ * Runs an asynchronous call for every item of an iterator, with at most a fixed number of calls in flight
+ * at once.
+ *
+ * Items are pulled from the iterator only as capacity becomes available, so neither the items nor their
+ * futures are all held in memory at once.
+ */
+public final class BoundedFanOut<T, R> {
+
+    @FunctionalInterface
+    public interface Call<T, R> {
+        CompletableFuture<R> apply(T item) throws RaaSException;
+    }
+
+    /**
+     * Receives the outcome of each call, possibly concurrently from several threads. Exactly one of
+     * {@code result} and {@code error} is meaningful: {@code error} is null when the call succeeded.
+     */
+    @FunctionalInterface
+    public interface Callback<T, R> {
+        void accept(int index, T item, R result, Throwable error);
+    }
+
+    private final Iterator<T> items;
+    private final Call<T, R> call;
+    private final Callback<T, R> callback;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private int nextIndex = 0;
+
+    private BoundedFanOut(Iterator<T> items, Call<T, R> call, Callback<T, R> callback) {
+        this.items = items;
+        this.call = call;
+        this.callback = callback;
+    }
+
+    /**
+     * Starts calling {@code call} for each item.
+     *
+     * @param items the items to call for.
+     * @param maxInFlight the maximum number of calls in flight at once.
+     * @param call the call to make for each item.
+     * @param callback receives the outcome of each call as it completes.
+     * @return a future that completes once every call has completed and its outcome has been passed to the
+     *         callback. Cancelling it stops further items from being pulled from the iterator.
+     */
+    public static <T, R> CompletableFuture<Void> run(Iterator<T> items, int maxInFlight, Call<T, R> call,
+            Callback<T, R> callback) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+
+        BoundedFanOut<T, R> fanOut = new BoundedFanOut<>(items, call, callback);
+        fanOut.activeWorkers.set(maxInFlight);
+        for (int i = 0; i < maxInFlight; i++) {
+            fanOut.work();
+        }
+        return fanOut.done;
+    }
+
+    private void work() {
+        while (true) {
+            T item;
+            int index;
+            synchronized (this) {
+                if (this.done.isDone() || !this.items.hasNext()) {
+                    if (this.activeWorkers.decrementAndGet() == 0) {
+                        this.done.complete(null);
+                    }
+                    return;
+                }
+                item = this.items.next();
+                index = this.nextIndex++;
+            }
+
+            CompletableFuture<R> future;
+            try {
+                future = this.call.apply(item);
+            } catch (RaaSException | RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+
+            // Futures that are already complete are handled in this loop rather than in a callback, to
+            // avoid growing the stack when many calls complete synchronously (e.g. from a cache).
+            if (!future.isDone()) {
+                future.whenComplete((result, error) -> {
+                    deliver(index, item, result, error);
+                    work();
+                });
+                return;
+            }
+
+            R result = null;
+            Throwable error = null;
+            try {
+                result = future.join();
+            } catch (CompletionException | CancellationException ex) {
+                error = ex;
+            }
+            deliver(index, item, result, error);
+        }
+    }
+
+    private void deliver(int index, T item, R result, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        try {
+            this.callback.accept(index, item, result, error);
+        } catch (RuntimeException ex) {
+            this.done.completeExceptionally(ex);
+        }
+    }
+}
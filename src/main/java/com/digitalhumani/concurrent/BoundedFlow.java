@@ -0,0 +1,245 @@
+package com.digitalhumani.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+/**
+ * A {@link Flow.Publisher} that runs an asynchronous call for every item of another publisher, with at most a
+ * fixed number of calls in flight at once, and publishes their results as they complete.
+ *
+ * Items are requested from the upstream publisher only while the calls in flight plus the results not yet
+ * delivered downstream are below the limit. A slow call or a slow subscriber therefore slows the upstream
+ * publisher down, rather than items or results queueing up in memory.
+ *
+ * Results are published in the order their calls complete, not the order of the items. A failed call fails
+ * the stream, so calls that can fail per item should return a failed result instead. An error from the
+ * upstream publisher is passed on once the calls already in flight have been published.
+ */
+public final class BoundedFlow<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<T> upstream;
+    private final int maxInFlight;
+    private final BoundedFanOut.Call<T, R> call;
+
+    /**
+     * @param upstream the publisher of the items to call for.
+     * @param maxInFlight the maximum number of calls in flight, and of results waiting to be delivered.
+     * @param call the call to make for each item.
+     */
+    public BoundedFlow(Flow.Publisher<T> upstream, int maxInFlight, BoundedFanOut.Call<T, R> call) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.upstream = upstream;
+        this.maxInFlight = maxInFlight;
+        this.call = call;
+    }
+
+    /**
+     * Subscribes to the upstream publisher on behalf of the subscriber, so each subscriber gets its own run of
+     * calls.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        this.upstream.subscribe(new Stage(subscriber));
+    }
+
+    private final class Stage implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final ArrayDeque<R> ready = new ArrayDeque<>();
+        // Serialises signals to the downstream subscriber and requests to the upstream publisher.
+        private final AtomicInteger drains = new AtomicInteger();
+
+        // Guarded by this stage.
+        private Flow.Subscription subscription;
+        private int inFlight;
+        private long upstreamDemand;
+        private long downstreamDemand;
+        private boolean upstreamDone;
+        private Throwable error;
+        private boolean cancelled;
+        private boolean terminated;
+
+        Stage(Flow.Subscriber<? super R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (this.subscription != null) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+            }
+            this.downstream.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void onNext(T item) {
+            synchronized (this) {
+                if (this.cancelled || this.terminated || this.error != null) {
+                    // Failing: items already requested are not called for.
+                    return;
+                }
+                this.upstreamDemand--;
+                this.inFlight++;
+            }
+
+            CompletableFuture<R> future;
+            try {
+                future = BoundedFlow.this.call.apply(item);
+            } catch (RaaSException | RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            future.whenComplete(this::completed);
+        }
+
+        private void completed(R result, Throwable ex) {
+            synchronized (this) {
+                this.inFlight--;
+                if (ex != null || result == null) {
+                    if (this.error == null) {
+                        this.error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause()
+                                : ex != null ? ex : new NullPointerException("call returned a null result");
+                    }
+                } else if (!this.cancelled) {
+                    this.ready.add(result);
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                this.upstreamDone = true;
+                if (this.error == null) {
+                    this.error = throwable;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                this.upstreamDone = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    if (this.error == null) {
+                        this.error = new IllegalArgumentException("request must be positive: " + n);
+                    }
+                } else {
+                    this.downstreamDemand = this.downstreamDemand + n < 0 ? Long.MAX_VALUE : this.downstreamDemand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription upstreamSubscription;
+            synchronized (this) {
+                if (this.cancelled) {
+                    return;
+                }
+                this.cancelled = true;
+                this.ready.clear();
+                upstreamSubscription = this.subscription;
+            }
+            if (upstreamSubscription != null) {
+                upstreamSubscription.cancel();
+            }
+        }
+
+        /**
+         * Delivers ready results, terminates the downstream subscriber when the stream is done, and requests
+         * more items from upstream when there is capacity. Only one thread drains at a time; a thread that
+         * finds another draining leaves it to loop once more.
+         */
+        private void drain() {
+            if (this.drains.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            while (true) {
+                while (true) {
+                    R result;
+                    synchronized (this) {
+                        if (this.cancelled || this.terminated || this.downstreamDemand == 0 || this.ready.isEmpty()) {
+                            break;
+                        }
+                        result = this.ready.poll();
+                        if (this.downstreamDemand != Long.MAX_VALUE) {
+                            this.downstreamDemand--;
+                        }
+                    }
+                    this.downstream.onNext(result);
+                }
+
+                Throwable failure = null;
+                boolean complete = false;
+                boolean cancelUpstream = false;
+                long request = 0;
+                Flow.Subscription upstreamSubscription;
+                synchronized (this) {
+                    upstreamSubscription = this.subscription;
+                    if (!this.cancelled && !this.terminated) {
+                        if (this.error != null && !this.upstreamDone) {
+                            // A call failed (or the subscriber broke the protocol): stop taking items, but let the calls
+                            // in flight finish first.
+                            this.upstreamDone = true;
+                            cancelUpstream = true;
+                        }
+                        if (this.upstreamDone && this.inFlight == 0 && this.ready.isEmpty()) {
+                            this.terminated = true;
+                            failure = this.error;
+                            complete = failure == null;
+                        } else if (!this.upstreamDone && upstreamSubscription != null) {
+                            request = BoundedFlow.this.maxInFlight - this.inFlight - this.ready.size()
+                                    - this.upstreamDemand;
+                            if (request > 0) {
+                                this.upstreamDemand += request;
+                            }
+                        }
+                    }
+                }
+
+                if (cancelUpstream) {
+                    upstreamSubscription.cancel();
+                }
+                if (failure != null) {
+                    this.downstream.onError(failure);
+                } else if (complete) {
+                    this.downstream.onComplete();
+                } else if (request > 0) {
+                    upstreamSubscription.request(request);
+                }
+
+                missed = this.drains.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
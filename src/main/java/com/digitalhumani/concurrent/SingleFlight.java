@@ -0,0 +1,65 @@
+package com.digitalhumani.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+/**
+ * De-duplicates concurrent calls with the same key: while a call for a key is in flight, other callers with
+ * that key share its result instead of making their own call. The key is released as soon as the call
+ * completes, so no result is ever reused after that.
+ */
+public final class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Call<V> {
+        CompletableFuture<V> call() throws RaaSException;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Makes the call, unless a call with the same key is already in flight, in which case its result is
+     * shared.
+     *
+     * @param key identifies calls that are interchangeable.
+     * @param call the call to make.
+     * @return a future for the result of the call. Each caller gets its own future, so cancelling it does
+     *         not affect other callers.
+     * @throws RaaSException if this caller made the call and it threw.
+     */
+    public CompletableFuture<V> execute(K key, Call<V> call) throws RaaSException {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            return existing.thenApply(result -> result);
+        }
+
+        CompletableFuture<V> response;
+        try {
+            response = call.call();
+        } catch (RaaSException | RuntimeException ex) {
+            this.inFlight.remove(key, shared);
+            shared.completeExceptionally(ex);
+            throw ex;
+        }
+
+        response.whenComplete((result, ex) -> {
+            this.inFlight.remove(key, shared);
+            if (ex == null) {
+                shared.complete(result);
+            } else {
+                shared.completeExceptionally(ex);
+            }
+        });
+        return shared.thenApply(result -> result);
+    }
+
+    /**
+     * @return the number of keys with a call in flight.
+     */
+    public int size() {
+        return this.inFlight.size();
+    }
+}
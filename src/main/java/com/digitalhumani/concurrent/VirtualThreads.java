@@ -0,0 +1,19 @@
+package com.digitalhumani.concurrent;
+
+/**
+ * Access to virtual threads, which only exist from Java 21.
+ *
+ * This is the Java 11 version, used when virtual threads are not available. The jar also contains a Java 21
+ * version (in {@code META-INF/versions/21}), which the JVM loads instead on Java 21 and later.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return whether the current thread is a virtual thread, and so can block cheaply.
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+}
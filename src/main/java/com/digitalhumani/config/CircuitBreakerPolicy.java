@@ -0,0 +1,139 @@
+package com.digitalhumani.config;
+
+import java.time.Duration;
+
+import com.digitalhumani.http.interfaces.CircuitBreakerListener;
+
+/**
+ * Settings for the circuit breaker around requests to the RaaS API.
+ *
+ * The outcomes of the most recent requests are kept in a sliding window. A request counts as failed if it
+ * got no response or a 5xx response, and as slow if it took longer than the slow call duration. Once the
+ * window holds at least the minimum number of calls and the failure rate or slow call rate reaches its
+ * threshold, the circuit opens: requests then fail immediately with a
+ * {@link com.digitalhumani.exceptions.RaaSCircuitOpenException}. After the open duration a few probe
+ * requests are let through; if they all succeed the circuit closes again, otherwise it re-opens.
+ *
+ * Setters return the policy instance so calls can be chained.
+ */
+public class CircuitBreakerPolicy {
+
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 0.5;
+    private Duration slowCallDuration = Duration.ofSeconds(5);
+    private double slowCallRateThreshold = 0.8;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenProbes = 3;
+    private CircuitBreakerListener listener = null;
+
+    public int getWindowSize() {
+        return this.windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return this.minimumCalls;
+    }
+
+    /**
+     * The number of most recent calls the failure and slow call rates are calculated over, and the minimum
+     * number of calls needed before they are. Defaults to 20 and 10.
+     *
+     * @param windowSize the size of the sliding window.
+     * @param minimumCalls the minimum number of calls before the circuit can open.
+     * @return this policy.
+     */
+    public CircuitBreakerPolicy setWindow(int windowSize, int minimumCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public double getFailureRateThreshold() {
+        return this.failureRateThreshold;
+    }
+
+    /**
+     * The rate of failed calls (between 0 and 1) at which the circuit opens. Defaults to 0.5.
+     *
+     * @param failureRateThreshold the failure rate threshold.
+     * @return this policy.
+     */
+    public CircuitBreakerPolicy setFailureRateThreshold(double failureRateThreshold) {
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("failureRateThreshold must be greater than 0 and at most 1");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    public Duration getSlowCallDuration() {
+        return this.slowCallDuration;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return this.slowCallRateThreshold;
+    }
+
+    /**
+     * Calls taking at least {@code slowCallDuration} are slow, and the circuit opens when the rate of slow
+     * calls (between 0 and 1) reaches {@code slowCallRateThreshold}. Defaults to 5 seconds and 0.8.
+     *
+     * @param slowCallDuration the duration from which a call is slow.
+     * @param slowCallRateThreshold the slow call rate threshold.
+     * @return this policy.
+     */
+    public CircuitBreakerPolicy setSlowCalls(Duration slowCallDuration, double slowCallRateThreshold) {
+        if (slowCallDuration == null || slowCallDuration.isNegative() || slowCallDuration.isZero()
+                || !(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+            throw new IllegalArgumentException(
+                    "slowCallDuration must be positive and slowCallRateThreshold greater than 0 and at most 1");
+        }
+        this.slowCallDuration = slowCallDuration;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    public Duration getOpenDuration() {
+        return this.openDuration;
+    }
+
+    public int getHalfOpenProbes() {
+        return this.halfOpenProbes;
+    }
+
+    /**
+     * How long the circuit stays open before probing, and the number of probe calls that must all succeed for
+     * it to close again. Defaults to 30 seconds and 3 probes.
+     *
+     * @param openDuration how long the circuit stays open.
+     * @param halfOpenProbes the number of probe calls.
+     * @return this policy.
+     */
+    public CircuitBreakerPolicy setOpenDuration(Duration openDuration, int halfOpenProbes) {
+        if (openDuration == null || openDuration.isNegative() || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("openDuration must not be negative and halfOpenProbes at least 1");
+        }
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        return this;
+    }
+
+    public CircuitBreakerListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * A listener notified of every state change of the circuit breaker, e.g. to log or alert on it.
+     *
+     * @param listener the listener, or null.
+     * @return this policy.
+     */
+    public CircuitBreakerPolicy setListener(CircuitBreakerListener listener) {
+        this.listener = listener;
+        return this;
+    }
+}
@@ -0,0 +1,95 @@
+package com.digitalhumani.config;
+
+import java.time.Duration;
+
+/**
+ * Settings for hedging GET requests to the RaaS API, to cut their tail latency.
+ *
+ * If a GET request has not completed within the hedge delay, a duplicate is sent; whichever response arrives
+ * first is used and the other request is cancelled. The delay is either fixed or a percentile of the latencies
+ * observed for the endpoint, so only the slowest requests are hedged. A hedge budget shared by all requests
+ * limits hedges to a fraction of the original requests.
+ *
+ * Only GET requests are hedged, since sending them twice is harmless.
+ *
+ * Setters return the policy instance so calls can be chained.
+ */
+public class HedgePolicy {
+
+    private Duration delay = Duration.ofMillis(100);
+    private double delayPercentile = 0;
+    private int minimumSamples = 100;
+    private double budgetRatio = 0.05;
+    private int budgetBurst = 10;
+
+    public Duration getDelay() {
+        return this.delay;
+    }
+
+    /**
+     * How long to wait for a response before sending a duplicate request. Also used while too few latencies
+     * have been observed for a percentile delay. Defaults to 100ms.
+     *
+     * @param delay the hedge delay.
+     * @return this policy.
+     */
+    public HedgePolicy setDelay(Duration delay) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        this.delay = delay;
+        return this;
+    }
+
+    public double getDelayPercentile() {
+        return this.delayPercentile;
+    }
+
+    public int getMinimumSamples() {
+        return this.minimumSamples;
+    }
+
+    /**
+     * Hedges a request once it has taken longer than the given percentile of the latencies observed for its
+     * endpoint, e.g. 95 to hedge the slowest 5% of requests. The fixed delay is used until
+     * {@code minimumSamples} latencies have been observed. Disabled (0) by default.
+     *
+     * @param percentile the percentile, between 0 (to always use the fixed delay) and 100.
+     * @param minimumSamples the number of latencies to observe before using the percentile.
+     * @return this policy.
+     */
+    public HedgePolicy setDelayPercentile(double percentile, int minimumSamples) {
+        if (percentile < 0 || percentile >= 100 || minimumSamples < 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100 and minimumSamples at least 1");
+        }
+        this.delayPercentile = percentile;
+        this.minimumSamples = minimumSamples;
+        return this;
+    }
+
+    public double getBudgetRatio() {
+        return this.budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return this.budgetBurst;
+    }
+
+    /**
+     * The hedge budget: every GET request earns {@code ratio} hedges, up to a balance of {@code burst} hedges.
+     * A request is not hedged when the balance is below one. Defaults to 0.05 (hedges add at most 5% to the
+     * load) with a burst of 10.
+     *
+     * @param ratio the hedges earned per request.
+     * @param burst the maximum number of hedges that can be saved up.
+     * @return this policy.
+     */
+    public HedgePolicy setHedgeBudget(double ratio, int burst) {
+        if (ratio < 0 || burst < 0) {
+            throw new IllegalArgumentException("ratio and burst must not be negative");
+        }
+        this.budgetRatio = ratio;
+        this.budgetBurst = burst;
+        return this;
+    }
+}
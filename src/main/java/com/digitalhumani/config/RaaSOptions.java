@@ -0,0 +1,521 @@
+package com.digitalhumani.config;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.digitalhumani.json.RaaSJsonCodec;
+import com.digitalhumani.json.interfaces.JsonCodec;
+import com.digitalhumani.metrics.interfaces.RaaSMetricsListener;
+import com.digitalhumani.tree.PlantingLedger;
+
+/**
+ * Optional settings for an instance of RaaS.
+ *
+ * All settings have sensible defaults, so a new instance can be passed as-is. Setters return the
+ * options instance so calls can be chained.
+ */
+public class RaaSOptions {
+
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private final Map<String, Duration> endpointRequestTimeouts = new HashMap<>();
+    private Executor executor = null;
+    private Duration coalescingWindow = null;
+    private int coalescingMaxTrees = 0;
+    private int maxConcurrentRequests = 16;
+    private JsonCodec jsonCodec = new RaaSJsonCodec();
+    private int treeCacheMaxEntries = 0;
+    private Duration treeCacheTtl = null;
+    private Duration monthCacheTtl = null;
+    private int monthCacheMaxEntries = 1_000;
+    private boolean singleFlight = true;
+    private RetryPolicy retryPolicy = new RetryPolicy();
+    private RateLimit rateLimit = null;
+    private final Map<String, RateLimit> endpointRateLimits = new HashMap<>();
+    private CircuitBreakerPolicy circuitBreaker = null;
+    private Path outboxDirectory = null;
+    private int outboxMaxAttempts = 20;
+    private Duration idempotencyWindow = Duration.ofMinutes(10);
+    private int idempotencyMaxKeys = 10_000;
+    private boolean generateIdempotencyKeys = false;
+    private RaaSMetricsListener metricsListener = null;
+    private HedgePolicy hedgePolicy = null;
+    private PlantingLedger ledger = null;
+
+    public HttpClient.Version getHttpVersion() {
+        return this.httpVersion;
+    }
+
+    /**
+     * The preferred HTTP version. HTTP/2 (the default) multiplexes concurrent requests over a
+     * single connection and falls back to HTTP/1.1 when the server does not support it.
+     *
+     * @param httpVersion the preferred HTTP version.
+     * @return these options.
+     */
+    public RaaSOptions setHttpVersion(HttpClient.Version httpVersion) {
+        this.httpVersion = httpVersion;
+        return this;
+    }
+
+    public Duration getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * How long to wait for a connection to the RaaS API to be established, or null to wait indefinitely.
+     *
+     * @param connectTimeout the connect timeout.
+     * @return these options.
+     */
+    public RaaSOptions setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public Duration getRequestTimeout() {
+        return this.requestTimeout;
+    }
+
+    /**
+     * How long to wait for the response to each attempt at a request, or null to wait indefinitely. A request
+     * that times out is retried according to the retry policy, and otherwise fails with a
+     * {@link com.digitalhumani.exceptions.RaaSTimeoutException}. Defaults to 30 seconds.
+     *
+     * To bound a whole call, including its retries, use a {@link com.digitalhumani.http.Deadline} instead.
+     *
+     * @param requestTimeout the request timeout.
+     * @return these options.
+     */
+    public RaaSOptions setRequestTimeout(Duration requestTimeout) {
+        if (requestTimeout != null && (requestTimeout.isNegative() || requestTimeout.isZero())) {
+            throw new IllegalArgumentException("requestTimeout must be positive");
+        }
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
+    /**
+     * @param endpoint an endpoint, e.g. "/tree".
+     * @return the request timeout for the endpoint: its own if it has one, or else the default.
+     */
+    public Duration getRequestTimeout(String endpoint) {
+        return this.endpointRequestTimeouts.getOrDefault(endpoint, this.requestTimeout);
+    }
+
+    /**
+     * The request timeout for a single endpoint of the RaaS API, overriding the default.
+     *
+     * @param endpoint the endpoint, "/tree" or "/enterprise".
+     * @param requestTimeout the request timeout, or null to use the default for the endpoint.
+     * @return these options.
+     */
+    public RaaSOptions setRequestTimeout(String endpoint, Duration requestTimeout) {
+        if (endpoint == null || endpoint.isEmpty()) {
+            throw new IllegalArgumentException("endpoint must not be empty");
+        }
+        if (requestTimeout != null && (requestTimeout.isNegative() || requestTimeout.isZero())) {
+            throw new IllegalArgumentException("requestTimeout must be positive");
+        }
+        String key = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+        if (requestTimeout == null) {
+            this.endpointRequestTimeouts.remove(key);
+        } else {
+            this.endpointRequestTimeouts.put(key, requestTimeout);
+        }
+        return this;
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * The executor used for asynchronous tasks and dependent stages, or null to use the default
+     * executor of the HTTP client. On Java 21 and later, e.g. {@code Executors.newVirtualThreadPerTaskExecutor()}
+     * runs them on virtual threads.
+     *
+     * @param executor the executor.
+     * @return these options.
+     */
+    public RaaSOptions setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public Duration getCoalescingWindow() {
+        return this.coalescingWindow;
+    }
+
+    public int getCoalescingMaxTrees() {
+        return this.coalescingMaxTrees;
+    }
+
+    /**
+     * Enables coalescing of single tree requests. Calls to plant a single tree for the same enterprise,
+     * project and user are collected for up to {@code window} (or until {@code maxTrees} trees have been
+     * requested) and are then sent as a single request for the combined number of trees. Every call in the
+     * batch completes with the response to that combined request.
+     *
+     * Coalescing is disabled by default.
+     *
+     * @param window how long to collect calls for before sending them, or null to disable coalescing.
+     * @param maxTrees the number of trees at which a batch is sent immediately.
+     * @return these options.
+     */
+    public RaaSOptions setCoalescing(Duration window, int maxTrees) {
+        if (window != null && maxTrees < 1) {
+            throw new IllegalArgumentException("maxTrees must be at least 1");
+        }
+        this.coalescingWindow = window;
+        this.coalescingMaxTrees = maxTrees;
+        return this;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return this.maxConcurrentRequests;
+    }
+
+    /**
+     * The maximum number of requests a single bulk operation (such as planting trees in bulk) keeps in
+     * flight at once. Defaults to 16.
+     *
+     * @param maxConcurrentRequests the maximum number of requests in flight per bulk operation.
+     * @return these options.
+     */
+    public RaaSOptions setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    public JsonCodec getJsonCodec() {
+        return this.jsonCodec;
+    }
+
+    /**
+     * The codec used to read and write JSON. Defaults to the SDK's built-in {@link RaaSJsonCodec}; a
+     * {@link com.digitalhumani.json.JacksonJsonCodec} can be used instead when Jackson is on the classpath.
+     *
+     * @param jsonCodec the JSON codec.
+     * @return these options.
+     */
+    public RaaSOptions setJsonCodec(JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+        return this;
+    }
+
+    public int getTreeCacheMaxEntries() {
+        return this.treeCacheMaxEntries;
+    }
+
+    public Duration getTreeCacheTtl() {
+        return this.treeCacheTtl;
+    }
+
+    /**
+     * Enables a cache of tree planting requests, used when getting a tree planted by its uuid. The cache is
+     * filled by successful plantings and lookups and an entry is removed when its request is deleted. The least
+     * recently used entry is evicted when the cache is full.
+     *
+     * The cache is disabled by default.
+     *
+     * @param maxEntries the maximum number of requests to cache, or 0 to disable the cache.
+     * @param ttl how long a request stays cached.
+     * @return these options.
+     */
+    public RaaSOptions setTreeCache(int maxEntries, Duration ttl) {
+        if (maxEntries > 0 && (ttl == null || ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.treeCacheMaxEntries = maxEntries;
+        this.treeCacheTtl = ttl;
+        return this;
+    }
+
+    public Duration getMonthCacheTtl() {
+        return this.monthCacheTtl;
+    }
+
+    public int getMonthCacheMaxEntries() {
+        return this.monthCacheMaxEntries;
+    }
+
+    /**
+     * Enables a cache of the number of trees planted per month, keeping the maximum number of counts cached
+     * (1000 unless set by {@link #setMonthCache(Duration, int)}).
+     *
+     * @param currentMonthTtl how long the count for the current month is cached, or null to disable the cache.
+     * @return these options.
+     * @see #setMonthCache(Duration, int)
+     */
+    public RaaSOptions setMonthCache(Duration currentMonthTtl) {
+        return setMonthCache(currentMonthTtl, this.monthCacheMaxEntries);
+    }
+
+    /**
+     * Enables a cache of the number of trees planted per month. Counts for past months never change, so they
+     * stay cached until evicted. The count for the current month is cached for {@code currentMonthTtl}; the
+     * first request for it once 80% of that time has passed starts a refresh but is still answered from the
+     * cache, so repeatedly requested counts do not make callers wait for the RaaS API. The least recently used
+     * count is evicted when the cache holds {@code maxEntries} counts (one per enterprise and month).
+     *
+     * The cache is disabled by default.
+     *
+     * @param currentMonthTtl how long the count for the current month is cached, or null to disable the cache.
+     * @param maxEntries the maximum number of counts to cache.
+     * @return these options.
+     */
+    public RaaSOptions setMonthCache(Duration currentMonthTtl, int maxEntries) {
+        if (currentMonthTtl != null && (currentMonthTtl.isNegative() || currentMonthTtl.isZero())) {
+            throw new IllegalArgumentException("currentMonthTtl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.monthCacheTtl = currentMonthTtl;
+        this.monthCacheMaxEntries = maxEntries;
+        return this;
+    }
+
+    public boolean isSingleFlight() {
+        return this.singleFlight;
+    }
+
+    /**
+     * Whether concurrent identical lookups (of a tree planted, or of the trees planted in a month) share a
+     * single request to the RaaS API rather than each sending their own. Enabled by default.
+     *
+     * @param singleFlight whether to share concurrent identical lookups.
+     * @return these options.
+     */
+    public RaaSOptions setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+        return this;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * How requests that failed with a connection error or a transient status are retried. By default GET
+     * and DELETE requests are retried up to twice; see {@link RetryPolicy}.
+     *
+     * @param retryPolicy the retry policy, or null to disable retries.
+     * @return these options.
+     */
+    public RaaSOptions setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    public RateLimit getRateLimit() {
+        return this.rateLimit;
+    }
+
+    /**
+     * Enables a client-side rate limit per API key, shared by all requests sent with that key through the
+     * same {@code RaaS} instance. Smoothing bursts on the client is cheaper than being throttled by the RaaS
+     * API. Endpoints with their own limit (see {@link #setRateLimit(String, RateLimit)}) are not counted
+     * against this limit.
+     *
+     * Rate limiting is disabled by default.
+     *
+     * @param rateLimit the rate limit, or null to disable it.
+     * @return these options.
+     */
+    public RaaSOptions setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    /**
+     * @return the rate limits for specific endpoints, keyed by endpoint (e.g. "/tree").
+     */
+    public Map<String, RateLimit> getEndpointRateLimits() {
+        return Collections.unmodifiableMap(this.endpointRateLimits);
+    }
+
+    /**
+     * Enables a client-side rate limit per API key for a single endpoint of the RaaS API.
+     *
+     * @param endpoint the endpoint, "/tree" or "/enterprise".
+     * @param rateLimit the rate limit, or null to remove the limit for the endpoint.
+     * @return these options.
+     */
+    public RaaSOptions setRateLimit(String endpoint, RateLimit rateLimit) {
+        if (endpoint == null || endpoint.isEmpty()) {
+            throw new IllegalArgumentException("endpoint must not be empty");
+        }
+        String key = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+        if (rateLimit == null) {
+            this.endpointRateLimits.remove(key);
+        } else {
+            this.endpointRateLimits.put(key, rateLimit);
+        }
+        return this;
+    }
+
+    public CircuitBreakerPolicy getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Enables a circuit breaker around requests to the RaaS API, so that while the API is failing or slow
+     * requests fail immediately instead of waiting for their timeouts; see {@link CircuitBreakerPolicy}.
+     *
+     * The circuit breaker is disabled by default.
+     *
+     * @param circuitBreaker the circuit breaker policy, or null to disable it.
+     * @return these options.
+     */
+    public RaaSOptions setCircuitBreaker(CircuitBreakerPolicy circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    public Path getOutboxDirectory() {
+        return this.outboxDirectory;
+    }
+
+    public int getOutboxMaxAttempts() {
+        return this.outboxMaxAttempts;
+    }
+
+    /**
+     * Enables the outbox for tree planting requests, keeping the maximum number of attempts per request (20
+     * unless set by {@link #setOutbox(Path, int)}).
+     *
+     * @param directory the directory for the journal, or null to disable the outbox.
+     * @return these options.
+     * @see #setOutbox(Path, int)
+     */
+    public RaaSOptions setOutbox(Path directory) {
+        return setOutbox(directory, this.outboxMaxAttempts);
+    }
+
+    /**
+     * Enables the outbox for tree planting requests. Requests to plant trees are then appended to a durable
+     * journal in {@code directory} and complete straight away with the accepted request (which has no uuid
+     * yet); a background sender delivers them to the RaaS API, retrying failed requests, and sends any
+     * requests still pending when the process restarts. Requests that are rejected, or that still fail after
+     * {@code maxAttempts} attempts, are written to {@code dead-letters.jsonl} in the directory, one
+     * {@code {"idempotencyKey":...,"request":...}} per line. Send them again with the same idempotency key, as
+     * one that timed out or failed with a 5xx may have been planted all the same.
+     *
+     * Each directory must only be used by one {@code RaaS} instance at a time. The outbox is disabled by
+     * default.
+     *
+     * @param directory the directory for the journal, or null to disable the outbox.
+     * @param maxAttempts the maximum number of attempts to send each request.
+     * @return these options.
+     */
+    public RaaSOptions setOutbox(Path directory, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.outboxDirectory = directory;
+        this.outboxMaxAttempts = maxAttempts;
+        return this;
+    }
+
+    public Duration getIdempotencyWindow() {
+        return this.idempotencyWindow;
+    }
+
+    public int getIdempotencyMaxKeys() {
+        return this.idempotencyMaxKeys;
+    }
+
+    /**
+     * How long, and for how many keys, plantings with an idempotency key are remembered. A planting sent again
+     * with the same key within the window is served the original result instead of planting trees twice.
+     * Defaults to 10 minutes and 10,000 keys.
+     *
+     * @param window how long a key is remembered, or null to not remember keys.
+     * @param maxKeys the maximum number of keys remembered; the oldest are forgotten first.
+     * @return these options.
+     */
+    public RaaSOptions setIdempotency(Duration window, int maxKeys) {
+        if (window != null && (window.isNegative() || window.isZero() || maxKeys < 1)) {
+            throw new IllegalArgumentException("window must be positive and maxKeys at least 1");
+        }
+        this.idempotencyWindow = window;
+        this.idempotencyMaxKeys = maxKeys;
+        return this;
+    }
+
+    public boolean isGenerateIdempotencyKeys() {
+        return this.generateIdempotencyKeys;
+    }
+
+    /**
+     * Whether plantings without an idempotency key are given a random one, sent in an {@code Idempotency-Key}
+     * header, so the RaaS API can recognise the same planting when it is retried or re-sent from the outbox.
+     * Disabled by default, so plantings without a key are sent as they were before keys were supported.
+     *
+     * @param generateIdempotencyKeys whether to generate idempotency keys.
+     * @return these options.
+     */
+    public RaaSOptions setGenerateIdempotencyKeys(boolean generateIdempotencyKeys) {
+        this.generateIdempotencyKeys = generateIdempotencyKeys;
+        return this;
+    }
+
+    public RaaSMetricsListener getMetricsListener() {
+        return this.metricsListener;
+    }
+
+    /**
+     * A listener for measurements of every request, such as a {@link com.digitalhumani.metrics.RaaSMetrics}.
+     * No measurements are taken when it is null (the default).
+     *
+     * @param metricsListener the listener, or null for none.
+     * @return these options.
+     */
+    public RaaSOptions setMetricsListener(RaaSMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
+    public HedgePolicy getHedgePolicy() {
+        return this.hedgePolicy;
+    }
+
+    /**
+     * The policy for hedging GET requests, which sends a duplicate of a slow request and uses whichever
+     * response arrives first. Disabled (null) by default.
+     *
+     * @param hedgePolicy the hedge policy, or null to not hedge requests.
+     * @return these options.
+     */
+    public RaaSOptions setHedgePolicy(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = hedgePolicy;
+        return this;
+    }
+
+    public PlantingLedger getLedger() {
+        return this.ledger;
+    }
+
+    /**
+     * A ledger counting the trees planted (and in flight) per enterprise, project, user and day, which can be
+     * queried without calling the RaaS API. No ledger is kept when it is null (the default).
+     *
+     * @param ledger the ledger, or null for none.
+     * @return these options.
+     */
+    public RaaSOptions setLedger(PlantingLedger ledger) {
+        this.ledger = ledger;
+        return this;
+    }
+}
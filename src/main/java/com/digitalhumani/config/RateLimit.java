@@ -0,0 +1,82 @@
+package com.digitalhumani.config;
+
+import java.time.Duration;
+
+/**
+ * A client-side rate limit for requests to the RaaS API: a token bucket refilled at {@code permitsPerSecond}
+ * and holding at most {@code burst} permits.
+ *
+ * When no permit is available a request either waits for one (the default) or fails fast with a
+ * {@link com.digitalhumani.exceptions.RaaSRateLimitedException}. Waiting requests are scheduled on a timer,
+ * so no thread is blocked while they wait.
+ *
+ * Setters return the rate limit instance so calls can be chained.
+ */
+public class RateLimit {
+
+    public enum Mode {
+        /** Wait (asynchronously) for a permit, for up to the maximum wait. */
+        WAIT,
+        /** Fail immediately when no permit is available. */
+        FAIL_FAST
+    }
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private Mode mode = Mode.WAIT;
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * @param permitsPerSecond the sustained rate of requests.
+     * @param burst the number of requests that can be sent at once after a quiet period.
+     */
+    public RateLimit(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive and burst at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    public double getPermitsPerSecond() {
+        return this.permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return this.burst;
+    }
+
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * What to do when no permit is available. Defaults to {@link Mode#WAIT}.
+     *
+     * @param mode the mode.
+     * @return this rate limit.
+     */
+    public RateLimit setMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public Duration getMaxWait() {
+        return this.maxWait;
+    }
+
+    /**
+     * In {@link Mode#WAIT}, the longest a request may wait for a permit before it fails instead. Defaults to
+     * 30 seconds.
+     *
+     * @param maxWait the maximum wait.
+     * @return this rate limit.
+     */
+    public RateLimit setMaxWait(Duration maxWait) {
+        if (maxWait == null || maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+        this.maxWait = maxWait;
+        return this;
+    }
+}
@@ -0,0 +1,116 @@
+package com.digitalhumani.config;
+
+import java.time.Duration;
+
+/**
+ * Settings for retrying requests to the RaaS API that failed with a connection error or a transient
+ * status (429, 500, 502, 503 or 504).
+ *
+ * Retries are delayed by a capped exponential backoff with full jitter, or by the server's
+ * {@code Retry-After} on a 429 or 503. A retry budget shared by all requests limits retries to a fraction of
+ * the original requests, so retrying cannot multiply the load on the RaaS API during an outage.
+ *
+ * GET and DELETE requests are retried by default. POST requests (planting trees) are only retried if
+ * enabled with {@link #setRetryPosts(boolean)}, since a request that timed out may still have been
+ * processed; supply an idempotency key with each planting, or have one generated (see
+ * {@link RaaSOptions#setGenerateIdempotencyKeys(boolean)}), so the RaaS API can recognise the retry.
+ *
+ * Setters return the policy instance so calls can be chained.
+ */
+public class RetryPolicy {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(100);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    private boolean retryPosts = false;
+    private double budgetRatio = 0.2;
+    private int budgetBurst = 10;
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * The maximum number of times a request is sent, including the first attempt. Defaults to 3.
+     *
+     * @param maxAttempts the maximum number of attempts.
+     * @return this policy.
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public Duration getInitialBackoff() {
+        return this.initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return this.maxBackoff;
+    }
+
+    /**
+     * The backoff before the first retry, doubled for each further retry up to {@code maxBackoff}. The
+     * actual delay is chosen at random between zero and the backoff. Defaults to 100ms, capped at 5s.
+     *
+     * {@code maxBackoff} also caps {@code Retry-After}: a response asking for a longer wait is returned as-is
+     * rather than retried.
+     *
+     * @param initialBackoff the backoff before the first retry.
+     * @param maxBackoff the maximum backoff.
+     * @return this policy.
+     */
+    public RetryPolicy setBackoff(Duration initialBackoff, Duration maxBackoff) {
+        if (initialBackoff == null || initialBackoff.isNegative() || maxBackoff == null
+                || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("backoff must be non-negative and maxBackoff at least initialBackoff");
+        }
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    public boolean isRetryPosts() {
+        return this.retryPosts;
+    }
+
+    /**
+     * Whether POST requests are retried too. Disabled by default.
+     *
+     * @param retryPosts whether to retry POST requests.
+     * @return this policy.
+     */
+    public RetryPolicy setRetryPosts(boolean retryPosts) {
+        this.retryPosts = retryPosts;
+        return this;
+    }
+
+    public double getBudgetRatio() {
+        return this.budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return this.budgetBurst;
+    }
+
+    /**
+     * The retry budget: every request earns {@code ratio} retries, up to a balance of {@code burst} retries.
+     * A request is not retried when the balance is below one. Defaults to 0.2 (retries add at most 20% to
+     * the load) with a burst of 10.
+     *
+     * @param ratio the retries earned per request.
+     * @param burst the maximum number of retries that can be saved up.
+     * @return this policy.
+     */
+    public RetryPolicy setRetryBudget(double ratio, int burst) {
+        if (ratio < 0 || burst < 0) {
+            throw new IllegalArgumentException("ratio and burst must not be negative");
+        }
+        this.budgetRatio = ratio;
+        this.budgetBurst = burst;
+        return this;
+    }
+}
@@ -1,8 +1,10 @@
 package com.digitalhumani.enterprise;
 
-import java.net.URI;
+import java.io.IOException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
@@ -10,37 +12,55 @@ import java.util.function.Function;
 import com.digitalhumani.enterprise.models.EnterpriseRequest;
 import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.RequestTemplate;
 import com.digitalhumani.interfaces.HTTPHelper;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.digitalhumani.jfr.ParseEvent;
+import com.digitalhumani.jfr.RequestBuildEvent;
+import com.digitalhumani.jfr.SerializeEvent;
+import com.digitalhumani.json.RaaSJsonCodec;
+import com.digitalhumani.json.interfaces.JsonCodec;
 
 public class EnterpriseHTTPHelper implements HTTPHelper<EnterpriseRequest, TreesPlantedForMonth> {
 
-    private ObjectMapper objectMapper = new ObjectMapper();
-    private String url = "";
-    private String apiKey = "";
+    private JsonCodec jsonCodec;
+    private RequestTemplate requestTemplate;
+    private Function<HttpResponse<String>, TreesPlantedForMonth> responseParser = this::parse;
 
     // constants
     private static final String RELATIVE_URL = "/enterprise";
-    private static final String USER_AGENT = "Digital Humani Java SDK";
-    private static final String CONTENT_TYPE = "application/json";
 
     public EnterpriseHTTPHelper(String url, String apiKey) {
-        this.url = url;
-        this.apiKey = apiKey;
+        this(url, apiKey, new RaaSJsonCodec());
+    }
+
+    public EnterpriseHTTPHelper(String url, String apiKey, JsonCodec jsonCodec) {
+        this(url, apiKey, jsonCodec, null);
+    }
+
+    public EnterpriseHTTPHelper(String url, String apiKey, JsonCodec jsonCodec, Duration requestTimeout) {
+        this.jsonCodec = jsonCodec;
+        this.requestTemplate = new RequestTemplate(url, RELATIVE_URL, apiKey, requestTimeout);
     }
 
     @Override
     public String toJson(EnterpriseRequest request) throws RaaSException {
-        String requestBody = "";
+        return new String(toJsonBytes(request), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] toJsonBytes(EnterpriseRequest request) throws RaaSException {
+        SerializeEvent event = new SerializeEvent();
+        event.begin();
+        byte[] requestBody;
         try {
-            requestBody = this.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(request);
-        } catch (JsonProcessingException ex) {
+            requestBody = this.jsonCodec.write(request);
+        } catch (IOException ex) {
             RaaSException raaSEx = new RaaSException(
                     "Unable to build JSON body for enterprise request from supplied parameters");
             raaSEx.initCause(ex);
             throw raaSEx;
         }
+        event.commit(RELATIVE_URL, requestBody.length);
         return requestBody;
     }
 
@@ -58,13 +78,11 @@ public class EnterpriseHTTPHelper implements HTTPHelper<EnterpriseRequest, Trees
 
     @Override
     public HttpRequest buildGetRequest(List<String> params) {
-        StringBuilder paramBuilder = new StringBuilder();
-        params.forEach(item -> paramBuilder.append(String.format("/%s", item)));
-        
-        return HttpRequest
-                .newBuilder(URI.create(String.format("%s%s%s", this.url, RELATIVE_URL, paramBuilder.toString())))
-                .setHeader("Content-Type", CONTENT_TYPE).setHeader("X-API-KEY", this.apiKey)
-                .setHeader("User-Agent", USER_AGENT).GET().build();
+        RequestBuildEvent event = new RequestBuildEvent();
+        event.begin();
+        HttpRequest request = this.requestTemplate.newRequest(this.requestTemplate.uri(params)).GET().build();
+        event.commit(RELATIVE_URL, "GET");
+        return request;
     }
 
     @Override
@@ -75,25 +93,35 @@ public class EnterpriseHTTPHelper implements HTTPHelper<EnterpriseRequest, Trees
 
     @Override
     public Function<HttpResponse<String>, TreesPlantedForMonth> parseResponse() {
-        return (HttpResponse<String> response) -> {
-            if (response.statusCode() == 404) {
-                RaaSException raasEx = new RaaSException("Could not find enterprise data.");
-                return new TreesPlantedForMonth(raasEx);
-            }
-
-            if (response.statusCode() == 401) {
-                RaaSException raasEx = new RaaSException("Not authorised - check your API key.");
-                return new TreesPlantedForMonth(raasEx);
-            }
-            
-            try {
-                return this.objectMapper.readValue(response.body(), TreesPlantedForMonth.class);
-            } catch (JsonProcessingException e) {
-                RaaSException raasEx = new RaaSException("Failed to parse response from RaaS API.");
-                raasEx.initCause(e);
-                return new TreesPlantedForMonth(raasEx);
-            }
-        };
+        return this.responseParser;
+    }
+
+    private TreesPlantedForMonth parse(HttpResponse<String> response) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        TreesPlantedForMonth result = read(response);
+        event.commit(RELATIVE_URL, response);
+        return result;
+    }
+
+    private TreesPlantedForMonth read(HttpResponse<String> response) {
+        if (response.statusCode() == 404) {
+            RaaSException raasEx = new RaaSException("Could not find enterprise data.");
+            return new TreesPlantedForMonth(raasEx);
+        }
+
+        if (response.statusCode() == 401) {
+            RaaSException raasEx = new RaaSException("Not authorised - check your API key.");
+            return new TreesPlantedForMonth(raasEx);
+        }
+
+        try {
+            return this.jsonCodec.read(response.body(), TreesPlantedForMonth.class);
+        } catch (IOException e) {
+            RaaSException raasEx = new RaaSException("Failed to parse response from RaaS API.");
+            raasEx.initCause(e);
+            return new TreesPlantedForMonth(raasEx);
+        }
     }
 
     @Override
@@ -1,42 +1,143 @@
 package com.digitalhumani.enterprise;
 
-import java.net.http.HttpClient;
+import java.io.IOException;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import com.digitalhumani.concurrent.BoundedFanOut;
+import com.digitalhumani.concurrent.SingleFlight;
+import com.digitalhumani.config.RaaSOptions;
 import com.digitalhumani.enterprise.interfaces.Enterprise;
 import com.digitalhumani.enterprise.models.EnterpriseRequest;
 import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.Deadline;
+import com.digitalhumani.http.RaaSTransport;
 import com.digitalhumani.interfaces.HTTPHelper;
+import com.digitalhumani.metrics.interfaces.RaaSMetricsListener;
 
 public class RaaSEnterprise implements Enterprise {
 
+    private static final String ENDPOINT = "/enterprise";
+
     private HTTPHelper<EnterpriseRequest, TreesPlantedForMonth> httpHelper;
-    private HttpClient httpClient;
+    private RaaSTransport transport;
+    private int maxConcurrentRequests;
+    private TreesPlantedForMonthCache cache;
+    private SingleFlight<String, TreesPlantedForMonth> lookups;
+    private Function<HttpResponse<String>, TreesPlantedForMonth> responseParser;
 
-    RaaSEnterprise(HTTPHelper<EnterpriseRequest, TreesPlantedForMonth> httpHelper) {
+    RaaSEnterprise(HTTPHelper<EnterpriseRequest, TreesPlantedForMonth> httpHelper, RaaSTransport transport,
+            RaaSOptions options) {
         this.httpHelper = httpHelper;
-        this.httpClient = HttpClient.newHttpClient();
+        this.transport = transport;
+        this.maxConcurrentRequests = options.getMaxConcurrentRequests();
+        this.responseParser = httpHelper.parseResponse();
+
+        RaaSMetricsListener metrics = options.getMetricsListener();
+        if (metrics != null) {
+            Function<HttpResponse<String>, TreesPlantedForMonth> parser = this.responseParser;
+            this.responseParser = response -> {
+                TreesPlantedForMonth result = parser.apply(response);
+                // The helper reports a body it could not parse with the codec's IOException as the cause.
+                if (result.getException() != null && result.getException().getCause() instanceof IOException) {
+                    metrics.parseFailed(ENDPOINT);
+                }
+                return result;
+            };
+        }
+
+        if (options.isSingleFlight()) {
+            this.lookups = new SingleFlight<>();
+        }
+        if (options.getMonthCacheTtl() != null) {
+            this.cache = new TreesPlantedForMonthCache(options.getMonthCacheTtl(),
+                    options.getMonthCacheMaxEntries());
+        }
     }
 
     public RaaSEnterprise(String url, String apiKey) {
-        this.httpHelper = new EnterpriseHTTPHelper(url, apiKey);
-        this.httpClient = HttpClient.newHttpClient();
+        this(url, apiKey, new RaaSTransport(), new RaaSOptions());
+    }
+
+    public RaaSEnterprise(String url, String apiKey, RaaSTransport transport, RaaSOptions options) {
+        this(new EnterpriseHTTPHelper(url, apiKey, options.getJsonCodec(), options.getRequestTimeout(ENDPOINT)),
+                transport, options);
     }
 
     @Override
     public CompletableFuture<TreesPlantedForMonth> getTreesPlantedForMonth(String enterpriseId, String month) {
-        List<String> params = new ArrayList<>();
-        params.add(enterpriseId);
-        params.add("treeCount");
-        params.add(month);
+        if (this.cache == null && this.lookups == null) {
+            return sendTreesPlantedForMonth(enterpriseId, month);
+        }
+
+        // The count is shared with concurrent callers (and may refresh the cache in the background), so it is
+        // loaded without this caller's deadline, which only bounds how long this caller waits for it.
+        Deadline deadline = Deadline.current();
+        CompletableFuture<TreesPlantedForMonth> shared = Deadline.suspend(() -> this.cache != null
+                ? this.cache.get(enterpriseId, month, () -> fetchTreesPlantedForMonth(enterpriseId, month))
+                : fetchTreesPlantedForMonth(enterpriseId, month));
+        return deadline != null ? deadline.bound(shared) : shared;
+    }
+
+    @Override
+    public CompletableFuture<TreesPlantedForRange> getTreesPlantedForRange(String enterpriseId, YearMonth from,
+            YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        List<YearMonth> months = new ArrayList<>((int) from.until(to, ChronoUnit.MONTHS) + 1);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        TreesPlantedForMonth[] results = new TreesPlantedForMonth[months.size()];
+
+        // Later months are requested from the threads completing earlier ones, so carry the caller's deadline.
+        Deadline deadline = Deadline.current();
+        BoundedFanOut.Call<YearMonth, TreesPlantedForMonth> get = month -> deadline == null
+                ? getTreesPlantedForMonth(enterpriseId, month.toString())
+                : deadline.resume(() -> getTreesPlantedForMonth(enterpriseId, month.toString()));
+
+        return BoundedFanOut.run(months.iterator(), this.maxConcurrentRequests, get,
+                (index, month, result, error) -> {
+                    results[index] = error == null ? result : new TreesPlantedForMonth(RaaSException.from(error));
+                }).thenApply(done -> {
+                    Map<YearMonth, TreesPlantedForMonth> byMonth = new LinkedHashMap<>();
+                    for (int i = 0; i < results.length; i++) {
+                        byMonth.put(months.get(i), results[i]);
+                    }
+                    return new TreesPlantedForRange(byMonth);
+                });
+    }
+
+    private CompletableFuture<TreesPlantedForMonth> fetchTreesPlantedForMonth(String enterpriseId, String month) {
+        if (this.lookups == null) {
+            return sendTreesPlantedForMonth(enterpriseId, month);
+        }
+        try {
+            return this.lookups.execute(enterpriseId + "/" + month,
+                    () -> sendTreesPlantedForMonth(enterpriseId, month));
+        } catch (RaaSException ex) {
+            // sendTreesPlantedForMonth does not throw
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
 
-        HttpRequest request = this.httpHelper.buildGetRequest(params);
+    private CompletableFuture<TreesPlantedForMonth> sendTreesPlantedForMonth(String enterpriseId, String month) {
+        HttpRequest request = this.httpHelper.buildGetRequest(Arrays.asList(enterpriseId, "treeCount", month));
 
-        return this.httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(this.httpHelper.parseResponse());
+        return this.transport.send(request).thenApply(this.responseParser);
     }
-    
+
 }
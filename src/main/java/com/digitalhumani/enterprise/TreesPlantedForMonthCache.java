@@ -0,0 +1,188 @@
+package com.digitalhumani.enterprise;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+
+/**
+ * A bounded cache of the number of trees planted per enterprise and month, evicting the least recently used
+ * entry when full.
+ *
+ * Counts for past months never change, so they stay cached until evicted. The count for the current (or a
+ * future) month is cached for a short time to live. The first request for it once most of that time has
+ * passed starts a refresh but is still answered from the cache, so callers are only made to wait when a
+ * count is requested for the first time or has not been requested for longer than its time to live.
+ */
+class TreesPlantedForMonthCache {
+
+    private static final DateTimeFormatter YEAR_FIRST = DateTimeFormatter.ofPattern("uuuu-MM");
+    private static final DateTimeFormatter MONTH_FIRST = DateTimeFormatter.ofPattern("MM-uuuu");
+
+    private final Map<Key, Entry> entries;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final Clock clock;
+    private final LongSupplier nanoClock;
+
+    TreesPlantedForMonthCache(Duration currentMonthTtl, int maxEntries) {
+        this(currentMonthTtl, maxEntries, Clock.systemUTC(), System::nanoTime);
+    }
+
+    TreesPlantedForMonthCache(Duration currentMonthTtl, int maxEntries, Clock clock, LongSupplier nanoClock) {
+        this.ttlNanos = currentMonthTtl.toNanos();
+        this.refreshAfterNanos = this.ttlNanos / 5 * 4;
+        this.clock = clock;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TreesPlantedForMonthCache.Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    CompletableFuture<TreesPlantedForMonth> get(String enterpriseId, String month,
+            Supplier<CompletableFuture<TreesPlantedForMonth>> loader) {
+        YearMonth yearMonth = parse(month);
+        if (yearMonth == null) {
+            return loader.get();
+        }
+
+        boolean past = yearMonth.isBefore(YearMonth.now(this.clock.withZone(ZoneOffset.UTC)));
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.computeIfAbsent(new Key(enterpriseId, yearMonth), key -> new Entry());
+        }
+        return entry.get(past, loader);
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private static YearMonth parse(String month) {
+        if (month == null) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(month, YEAR_FIRST);
+        } catch (DateTimeParseException ex) {
+            // fall through to the other supported format
+        }
+        try {
+            return YearMonth.parse(month, MONTH_FIRST);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private final class Entry {
+        private TreesPlantedForMonth value;
+        private long loadedAt;
+        private boolean permanent;
+        private CompletableFuture<TreesPlantedForMonth> loading;
+
+        CompletableFuture<TreesPlantedForMonth> get(boolean past,
+                Supplier<CompletableFuture<TreesPlantedForMonth>> loader) {
+            TreesPlantedForMonth cached = null;
+            CompletableFuture<TreesPlantedForMonth> loading;
+            boolean start = false;
+            synchronized (this) {
+                if (this.value != null) {
+                    long age = nanoClock.getAsLong() - this.loadedAt;
+                    if (this.permanent || age < ttlNanos) {
+                        cached = this.value;
+                        if (this.permanent || age < refreshAfterNanos || this.loading != null) {
+                            return CompletableFuture.completedFuture(cached);
+                        }
+                    }
+                }
+                if (this.loading == null) {
+                    this.loading = new CompletableFuture<>();
+                    start = true;
+                }
+                loading = this.loading;
+            }
+
+            // The loader sends a request, so it is called without holding the entry.
+            if (start) {
+                load(loading, past, loader);
+            }
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            // A dependent future, so one caller cannot complete or cancel the load for everyone else.
+            return loading.thenApply(result -> result);
+        }
+
+        private void load(CompletableFuture<TreesPlantedForMonth> loading, boolean past,
+                Supplier<CompletableFuture<TreesPlantedForMonth>> loader) {
+            loading.whenComplete((result, ex) -> loaded(loading, past, result));
+            try {
+                loader.get().whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        loading.completeExceptionally(ex);
+                    } else {
+                        loading.complete(result);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                loading.completeExceptionally(ex);
+            }
+        }
+
+        private synchronized void loaded(CompletableFuture<TreesPlantedForMonth> future, boolean past,
+                TreesPlantedForMonth result) {
+            if (this.loading == future) {
+                this.loading = null;
+            }
+            if (result != null && result.isSuccess()) {
+                this.value = result;
+                this.loadedAt = nanoClock.getAsLong();
+                this.permanent = past;
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String enterpriseId;
+        private final YearMonth month;
+
+        Key(String enterpriseId, YearMonth month) {
+            this.enterpriseId = enterpriseId;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(this.enterpriseId, other.enterpriseId) && this.month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.enterpriseId, this.month);
+        }
+    }
+}
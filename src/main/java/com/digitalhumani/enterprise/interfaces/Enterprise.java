@@ -1,9 +1,41 @@
 package com.digitalhumani.enterprise.interfaces;
 
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.Deadline;
 
 public interface Enterprise {
     public CompletableFuture<TreesPlantedForMonth> getTreesPlantedForMonth(String enterpriseId, String month);
+
+    /**
+     * Gets the number of trees planted in each month of a range. By default with
+     * {@link #getTreesPlantedForMonth}, one month at a time, so implementations written before this method
+     * existed keep working.
+     */
+    public default CompletableFuture<TreesPlantedForRange> getTreesPlantedForRange(String enterpriseId,
+            YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        // Later months are requested from the threads completing earlier ones, so carry the caller's deadline.
+        Deadline deadline = Deadline.current();
+        Map<YearMonth, TreesPlantedForMonth> months = new LinkedHashMap<>();
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String current = month.toString();
+            YearMonth key = month;
+            done = done.thenCompose(previous -> (deadline == null ? getTreesPlantedForMonth(enterpriseId, current)
+                    : deadline.resume(() -> getTreesPlantedForMonth(enterpriseId, current)))
+                    .exceptionally(error -> new TreesPlantedForMonth(RaaSException.from(error)))
+                    .thenAccept(result -> months.put(key, result)));
+        }
+        return done.thenApply(all -> new TreesPlantedForRange(months));
+    }
 }
@@ -0,0 +1,55 @@
+package com.digitalhumani.enterprise.models;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+
+public final class TreesPlantedForRange {
+
+    private Map<YearMonth, TreesPlantedForMonth> months;
+    private int succeeded;
+    private int failed;
+    private long totalTrees;
+
+    /**
+     * The result for each month of the range, in order. A month whose count could not be retrieved carries
+     * the exception.
+     *
+     * @return the result of each month.
+     */
+    public Map<YearMonth, TreesPlantedForMonth> getMonths() {
+        return this.months;
+    }
+
+    public int getSucceeded() {
+        return this.succeeded;
+    }
+
+    public int getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * @return the total number of trees planted in the months whose count was retrieved.
+     */
+    public long getTotalTrees() {
+        return this.totalTrees;
+    }
+
+    /**
+     * @param months the result of each month, in order.
+     */
+    public TreesPlantedForRange(Map<YearMonth, TreesPlantedForMonth> months) {
+        this.months = Collections.unmodifiableMap(months);
+        for (TreesPlantedForMonth month : months.values()) {
+            if (month.isSuccess()) {
+                this.succeeded++;
+                if (month.getTotalTrees() != null) {
+                    this.totalTrees += month.getTotalTrees();
+                }
+            } else {
+                this.failed++;
+            }
+        }
+    }
+}
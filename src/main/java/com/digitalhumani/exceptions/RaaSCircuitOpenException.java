@@ -0,0 +1,11 @@
+package com.digitalhumani.exceptions;
+
+/**
+ * Thrown when a request is not sent because the circuit breaker is open, after too many recent requests to
+ * the RaaS API failed or were slow.
+ */
+public class RaaSCircuitOpenException extends RaaSException {
+    public RaaSCircuitOpenException(String message) {
+        super(message);
+    }
+}
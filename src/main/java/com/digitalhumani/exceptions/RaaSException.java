@@ -1,7 +1,25 @@
 package com.digitalhumani.exceptions;
 
+import java.util.concurrent.CompletionException;
+
 public class RaaSException extends Exception  { 
     public RaaSException(String message) {
         super(message);
     }
+
+    /**
+     * @param error the failure of a request, possibly wrapped in a {@link CompletionException}.
+     * @return the failure itself if it is a RaaSException, or else a RaaSException caused by it.
+     */
+    public static RaaSException from(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RaaSException) {
+            return (RaaSException) error;
+        }
+        RaaSException raasEx = new RaaSException("Failed to send request to RaaS API.");
+        raasEx.initCause(error);
+        return raasEx;
+    }
 }
@@ -0,0 +1,11 @@
+package com.digitalhumani.exceptions;
+
+/**
+ * Thrown when a request is not sent because the client-side rate limit for its API key (and endpoint) has
+ * been reached.
+ */
+public class RaaSRateLimitedException extends RaaSException {
+    public RaaSRateLimitedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.digitalhumani.exceptions;
+
+/**
+ * Thrown when a request to the RaaS API did not complete in time: either its request timeout elapsed while
+ * waiting for the response, or the deadline of the call passed (see {@link com.digitalhumani.http.Deadline}).
+ */
+public class RaaSTimeoutException extends RaaSException {
+    public RaaSTimeoutException(String message) {
+        super(message);
+    }
+}
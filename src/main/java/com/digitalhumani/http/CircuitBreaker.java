@@ -0,0 +1,166 @@
+package com.digitalhumani.http;
+
+import java.util.function.LongSupplier;
+
+import com.digitalhumani.config.CircuitBreakerPolicy;
+import com.digitalhumani.http.interfaces.CircuitBreakerListener;
+
+/**
+ * A circuit breaker with a count-based sliding window of call outcomes.
+ *
+ * State is guarded by the breaker's monitor, except for a volatile read of the state so calls are let
+ * through without locking while the circuit is closed. Listeners are notified outside the monitor.
+ */
+final class CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final CircuitBreakerListener listener;
+    private final LongSupplier nanoClock;
+
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private final byte[] window;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(CircuitBreakerPolicy policy) {
+        this(policy, System::nanoTime);
+    }
+
+    CircuitBreaker(CircuitBreakerPolicy policy, LongSupplier nanoClock) {
+        this.window = new byte[policy.getWindowSize()];
+        this.minimumCalls = policy.getMinimumCalls();
+        this.failureRateThreshold = policy.getFailureRateThreshold();
+        this.slowCallRateThreshold = policy.getSlowCallRateThreshold();
+        this.slowCallNanos = policy.getSlowCallDuration().toNanos();
+        this.openNanos = policy.getOpenDuration().toNanos();
+        this.halfOpenProbes = policy.getHalfOpenProbes();
+        this.listener = policy.getListener();
+        this.nanoClock = nanoClock;
+    }
+
+    CircuitBreakerState getState() {
+        return this.state;
+    }
+
+    /**
+     * @return whether a call may be made. A permitted call must be followed by {@link #record} or
+     *         {@link #release}.
+     */
+    boolean tryAcquire() {
+        if (this.state == CircuitBreakerState.CLOSED) {
+            return true;
+        }
+
+        boolean permitted;
+        boolean halfOpened = false;
+        synchronized (this) {
+            if (this.state == CircuitBreakerState.OPEN) {
+                if (this.nanoClock.getAsLong() - this.openedAt < this.openNanos) {
+                    return false;
+                }
+                this.state = CircuitBreakerState.HALF_OPEN;
+                this.probesStarted = 0;
+                this.probesSucceeded = 0;
+                halfOpened = true;
+            }
+            permitted = this.state == CircuitBreakerState.CLOSED || this.probesStarted < this.halfOpenProbes;
+            if (permitted && this.state == CircuitBreakerState.HALF_OPEN) {
+                this.probesStarted++;
+            }
+        }
+        if (halfOpened) {
+            notify(CircuitBreakerState.OPEN, CircuitBreakerState.HALF_OPEN);
+        }
+        return permitted;
+    }
+
+    /**
+     * Gives back a permitted call that was not made.
+     */
+    synchronized void release() {
+        if (this.state == CircuitBreakerState.HALF_OPEN && this.probesStarted > 0) {
+            this.probesStarted--;
+        }
+    }
+
+    void record(boolean failed, long durationNanos) {
+        byte outcome = (byte) ((failed ? FAILED : 0) | (durationNanos >= this.slowCallNanos ? SLOW : 0));
+
+        CircuitBreakerState from;
+        CircuitBreakerState to;
+        synchronized (this) {
+            from = this.state;
+            switch (from) {
+                case CLOSED:
+                    to = recordClosed(outcome);
+                    break;
+                case HALF_OPEN:
+                    to = recordHalfOpen(outcome);
+                    break;
+                default:
+                    // a call that started before the circuit opened
+                    to = from;
+            }
+        }
+        if (to != from) {
+            notify(from, to);
+        }
+    }
+
+    private CircuitBreakerState recordClosed(byte outcome) {
+        if (this.calls == this.window.length) {
+            byte evicted = this.window[this.next];
+            this.failures -= evicted & FAILED;
+            this.slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            this.calls++;
+        }
+        this.window[this.next] = outcome;
+        this.next = (this.next + 1) % this.window.length;
+        this.failures += outcome & FAILED;
+        this.slowCalls += (outcome & SLOW) >> 1;
+
+        if (this.calls >= this.minimumCalls && (this.failures >= this.failureRateThreshold * this.calls
+                || this.slowCalls >= this.slowCallRateThreshold * this.calls)) {
+            open();
+        }
+        return this.state;
+    }
+
+    private CircuitBreakerState recordHalfOpen(byte outcome) {
+        if (outcome != 0) {
+            open();
+        } else if (++this.probesSucceeded >= this.halfOpenProbes) {
+            this.state = CircuitBreakerState.CLOSED;
+            this.calls = 0;
+            this.next = 0;
+            this.failures = 0;
+            this.slowCalls = 0;
+        }
+        return this.state;
+    }
+
+    private void open() {
+        this.state = CircuitBreakerState.OPEN;
+        this.openedAt = this.nanoClock.getAsLong();
+    }
+
+    private void notify(CircuitBreakerState from, CircuitBreakerState to) {
+        if (this.listener != null) {
+            this.listener.onStateChange(from, to);
+        }
+    }
+}
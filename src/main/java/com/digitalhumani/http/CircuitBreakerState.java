@@ -0,0 +1,13 @@
+package com.digitalhumani.http;
+
+/**
+ * The states of the circuit breaker around requests to the RaaS API.
+ */
+public enum CircuitBreakerState {
+    /** Requests are sent, and their outcomes recorded. */
+    CLOSED,
+    /** Requests fail immediately, until the open duration has passed. */
+    OPEN,
+    /** A limited number of probe requests are sent to decide whether to close or re-open the circuit. */
+    HALF_OPEN
+}
@@ -0,0 +1,237 @@
+package com.digitalhumani.http;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.exceptions.RaaSTimeoutException;
+
+/**
+ * A deadline for the calls made on a thread, covering everything they do: waiting for rate limit permits,
+ * sending the request, and any retries and hedges. Calls that have not completed by the deadline fail with a
+ * {@link com.digitalhumani.exceptions.RaaSTimeoutException}.
+ *
+ * A deadline applies to calls started on the thread that opened it, until it is closed:
+ *
+ * <pre>
+ * try (Deadline deadline = Deadline.within(Duration.ofSeconds(2))) {
+ *     TreesPlanted trees = raas.getATreePlantedBlocking(uuid);
+ * }
+ * </pre>
+ *
+ * Deadlines nest: a deadline opened within another never ends later than the outer one.
+ *
+ * A result shared by several callers, e.g. a de-duplicated lookup or a cache load, should not fail because of
+ * the deadline of whichever caller happened to start it. Such a load is started without a deadline via
+ * {@link #suspend(Call)}, and each caller waits for it within its own deadline via {@link #bound}.
+ */
+public final class Deadline implements AutoCloseable {
+
+    /**
+     * A call made within a deadline.
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    /**
+     * Fires the deadlines of calls. The timer of a call is removed as soon as the call completes, so it does
+     * not hold on to the response until the deadline.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private final long nanos;
+    private final Deadline previous;
+    private boolean closed;
+
+    private Deadline(long nanos, Deadline previous) {
+        this.nanos = nanos;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a deadline on the current thread.
+     *
+     * @param timeout how long calls have to complete, from now.
+     * @return the deadline, to be closed once the calls have been started.
+     */
+    public static Deadline within(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        Deadline current = CURRENT.get();
+        long nanos = System.nanoTime() + saturatedNanos(timeout);
+        if (current != null && current.nanos - nanos < 0) {
+            nanos = current.nanos;
+        }
+        return open(nanos, current);
+    }
+
+    /**
+     * @return the deadline open on the current thread, or null if there is none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens this deadline again on the current thread, so calls started on another thread on behalf of the
+     * caller (e.g. the later requests of a bulk operation) share the caller's deadline.
+     *
+     * @return the deadline, to be closed once the calls have been started.
+     */
+    public Deadline resume() {
+        return open(this.nanos, CURRENT.get());
+    }
+
+    /**
+     * Makes a call with this deadline open again on the current thread, e.g. one of the later requests of a
+     * bulk operation, started on another thread on behalf of the caller.
+     *
+     * @param call the call.
+     * @return the result of the call.
+     * @throws E if the call throws.
+     */
+    public <T, E extends Exception> T resume(Call<T, E> call) throws E {
+        Deadline resumed = resume();
+        try {
+            return call.call();
+        } finally {
+            resumed.close();
+        }
+    }
+
+    /**
+     * Makes a call with no deadline open on the current thread, e.g. to start a load whose result is shared
+     * with other callers that have deadlines of their own.
+     *
+     * @param call the call.
+     * @return the result of the call.
+     * @throws E if the call throws.
+     */
+    public static <T, E extends Exception> T suspend(Call<T, E> call) throws E {
+        Deadline current = CURRENT.get();
+        if (current == null) {
+            return call.call();
+        }
+        CURRENT.remove();
+        try {
+            return call.call();
+        } finally {
+            CURRENT.set(current);
+        }
+    }
+
+    /**
+     * Waits for a result within this deadline, without affecting the result itself.
+     *
+     * @param future the result, possibly shared with other callers.
+     * @return a future that completes like {@code future}, or fails with a {@link RaaSTimeoutException} if this
+     *         deadline passes first. {@code future} is never cancelled.
+     */
+    public <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+
+        CompletableFuture<T> bounded = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                bounded.complete(result);
+            } else {
+                bounded.completeExceptionally(ex);
+            }
+        });
+        // The timer only hands the timeout on, so the caller's callbacks never run on the timer's thread.
+        ScheduledFuture<?> timer = schedule(
+                () -> CompletableFuture.runAsync(() -> bounded.completeExceptionally(exceeded())));
+        bounded.whenComplete((result, ex) -> timer.cancel(false));
+        return bounded;
+    }
+
+    /**
+     * Runs a task once this deadline passes. The task runs on a single timer thread, so it must only hand
+     * work on to another executor.
+     *
+     * @return the scheduled task, to be cancelled once it is no longer needed.
+     */
+    ScheduledFuture<?> schedule(Runnable task) {
+        return TIMER.schedule(task, remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    static RaaSTimeoutException exceeded() {
+        return new RaaSTimeoutException("Deadline exceeded before the RaaS API responded.");
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "raas-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static Deadline open(long nanos, Deadline previous) {
+        Deadline deadline = new Deadline(nanos, previous);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * @return the time left until the deadline in nanoseconds, or 0 if it has passed.
+     */
+    public long remainingNanos() {
+        return Math.max(0, this.nanos - System.nanoTime());
+    }
+
+    /**
+     * @return whether the deadline has passed.
+     */
+    public boolean isExpired() {
+        return this.nanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Closes this deadline, restoring the deadline (if any) that was open on the thread before it.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        if (this.previous != null) {
+            CURRENT.set(this.previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @param timeout a timeout, or null for none.
+     * @return the shorter of the timeout and the time left until the current deadline, or null if there is
+     *         neither. Never shorter than a millisecond, as a request timeout must be positive.
+     */
+    static Duration timeout(Duration timeout) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        long remaining = Math.max(1_000_000, deadline.remainingNanos());
+        return timeout != null && saturatedNanos(timeout) <= remaining ? timeout : Duration.ofNanos(remaining);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.digitalhumani.http;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.digitalhumani.config.HedgePolicy;
+import com.digitalhumani.metrics.LatencyHistogram;
+
+/**
+ * Hedges GET requests according to a {@link HedgePolicy}: sends a duplicate of a request that is slower
+ * than the hedge delay, and completes with whichever response arrives first.
+ */
+final class Hedger {
+
+    // How often (in recorded latencies) the percentile delay of an endpoint is recalculated.
+    private static final int RECALCULATE_EVERY = 64;
+
+    private final long delayNanos;
+    private final double percentile;
+    private final int minimumSamples;
+    private final RequestBudget budget;
+    private final Executor executor;
+    private final ConcurrentHashMap<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+    Hedger(HedgePolicy policy, Executor executor) {
+        this.delayNanos = policy.getDelay().toNanos();
+        this.percentile = policy.getDelayPercentile();
+        this.minimumSamples = policy.getMinimumSamples();
+        this.budget = new RequestBudget(policy.getBudgetRatio(), policy.getBudgetBurst());
+        this.executor = executor;
+    }
+
+    /**
+     * The latencies of the first attempts at requests to one endpoint, and the hedge delay worked out from
+     * them. A first attempt cancelled because its hedge won counts with the time it had taken so far: a lower
+     * bound, but unlike the hedge's latency never shorter than the delay, so the delay does not drift down.
+     */
+    private final class Latencies {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        volatile long delayNanos = Hedger.this.delayNanos;
+
+        void record(long nanos) {
+            this.histogram.record(nanos);
+            long count = this.histogram.getCount();
+            if (count >= Hedger.this.minimumSamples && count % RECALCULATE_EVERY == 0) {
+                this.delayNanos = this.histogram.getPercentile(Hedger.this.percentile);
+            }
+        }
+    }
+
+    CompletableFuture<HttpResponse<String>> send(HttpRequest request,
+            Function<HttpRequest, CompletableFuture<HttpResponse<String>>> attempt) {
+        if (!"GET".equals(request.method())) {
+            return attempt.apply(request);
+        }
+
+        this.budget.deposit();
+        Latencies latencies = null;
+        if (this.percentile > 0) {
+            latencies = this.latencies.computeIfAbsent(RaaSTransport.endpoint(request), endpoint -> new Latencies());
+        }
+        Race race = new Race(request, attempt, latencies);
+        race.start();
+        return race.result;
+    }
+
+    /**
+     * A request and its hedge racing each other.
+     */
+    private final class Race {
+        final CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        final HttpRequest request;
+        final Function<HttpRequest, CompletableFuture<HttpResponse<String>>> attempt;
+        final Latencies latencies;
+
+        // Guarded by this race.
+        CompletableFuture<HttpResponse<String>> primary;
+        CompletableFuture<HttpResponse<String>> hedge;
+        int pending;
+        boolean decided;
+
+        Race(HttpRequest request, Function<HttpRequest, CompletableFuture<HttpResponse<String>>> attempt,
+                Latencies latencies) {
+            this.request = request;
+            this.attempt = attempt;
+            this.latencies = latencies;
+        }
+
+        void start() {
+            synchronized (this) {
+                this.pending = 1;
+            }
+            CompletableFuture<HttpResponse<String>> primary = run(true);
+            synchronized (this) {
+                this.primary = primary;
+            }
+            if (primary.isDone()) {
+                return;
+            }
+
+            long delay = this.latencies != null ? this.latencies.delayNanos : Hedger.this.delayNanos;
+            RaaSTransport.delayedExecutor(delay, TimeUnit.NANOSECONDS, Hedger.this.executor).execute(this::hedge);
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (this.decided || !Hedger.this.budget.tryWithdraw()) {
+                    return;
+                }
+                this.pending++;
+            }
+            CompletableFuture<HttpResponse<String>> hedge = run(false);
+            boolean decided;
+            synchronized (this) {
+                this.hedge = hedge;
+                decided = this.decided;
+            }
+            if (decided) {
+                // The primary request won (or failed) while the hedge was being sent.
+                cancelIfPending(hedge);
+            }
+        }
+
+        private CompletableFuture<HttpResponse<String>> run(boolean primary) {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<String>> future = this.attempt.apply(this.request);
+            future.whenComplete((response, ex) -> {
+                if (primary && this.latencies != null && (ex == null || future.isCancelled())) {
+                    this.latencies.record(System.nanoTime() - start);
+                }
+                completed(response, ex);
+            });
+            return future;
+        }
+
+        private void completed(HttpResponse<String> response, Throwable ex) {
+            CompletableFuture<HttpResponse<String>> primary;
+            CompletableFuture<HttpResponse<String>> hedge;
+            synchronized (this) {
+                if (this.decided || (ex != null && --this.pending > 0)) {
+                    // Either the race is over, or the other request may still succeed.
+                    return;
+                }
+                this.decided = true;
+                primary = this.primary;
+                hedge = this.hedge;
+            }
+
+            if (ex != null) {
+                this.result.completeExceptionally(
+                        ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                return;
+            }
+            cancelIfPending(primary);
+            cancelIfPending(hedge);
+            this.result.complete(response);
+        }
+
+        private void cancelIfPending(CompletableFuture<HttpResponse<String>> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.digitalhumani.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.concurrent.VirtualThreads;
+import com.digitalhumani.config.RaaSOptions;
+import com.digitalhumani.config.RateLimit;
+import com.digitalhumani.exceptions.RaaSCircuitOpenException;
+import com.digitalhumani.exceptions.RaaSRateLimitedException;
+import com.digitalhumani.exceptions.RaaSTimeoutException;
+import com.digitalhumani.jfr.SendEvent;
+import com.digitalhumani.metrics.interfaces.RaaSMetricsListener;
+
+/**
+ * The HTTP transport shared by all the RaaS clients of a single RaaS instance.
+ *
+ * Wraps one {@link HttpClient} so tree and enterprise requests share the same connection pool,
+ * selector thread and TLS sessions.
+ */
+public class RaaSTransport {
+
+    /** Set on a virtual thread while it makes a call within {@link #blocking}. */
+    private static final ThreadLocal<Boolean> BLOCKING = new ThreadLocal<>();
+
+    private final HttpClient httpClient;
+    private final Retrier retrier;
+    private final RateLimit rateLimit;
+    private final Map<String, RateLimit> endpointRateLimits;
+    private final ConcurrentHashMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final RaaSMetricsListener metrics;
+    private final Hedger hedger;
+
+    public RaaSTransport() {
+        this(new RaaSOptions());
+    }
+
+    public RaaSTransport(RaaSOptions options) {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(options.getHttpVersion());
+        if (options.getConnectTimeout() != null) {
+            builder.connectTimeout(options.getConnectTimeout());
+        }
+        Executor executor = options.getExecutor();
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.httpClient = builder.build();
+
+        this.executor = executor;
+        this.metrics = options.getMetricsListener();
+        this.circuitBreaker = options.getCircuitBreaker() != null ? new CircuitBreaker(options.getCircuitBreaker())
+                : null;
+        this.rateLimit = options.getRateLimit();
+        this.endpointRateLimits = Map.copyOf(options.getEndpointRateLimits());
+        this.hedger = options.getHedgePolicy() != null ? new Hedger(options.getHedgePolicy(), executor) : null;
+        this.retrier = options.getRetryPolicy() != null ? new Retrier(options.getRetryPolicy(), executor)
+                : null;
+    }
+
+    public HttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    /**
+     * @return the state of the circuit breaker, or null if it is not enabled.
+     */
+    public CircuitBreakerState getCircuitBreakerState() {
+        return this.circuitBreaker != null ? this.circuitBreaker.getState() : null;
+    }
+
+    /**
+     * Sends a request, retrying it according to the retry policy of the options and hedging it according to
+     * the hedge policy.
+     *
+     * If a {@link Deadline} is open on the calling thread, the request fails with a
+     * {@link RaaSTimeoutException} once it passes, and no further attempts are started.
+     *
+     * @param request the request.
+     * @return the final response, or an exceptional future if the last attempt failed to get a response.
+     */
+    public CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(Deadline.exceeded());
+        }
+
+        CompletableFuture<HttpResponse<String>> response = this.retrier != null
+                ? this.retrier.send(request, attempt -> sendHedged(attempt, deadline))
+                : sendHedged(request, deadline);
+
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        response.whenComplete((sent, ex) -> {
+            if (ex == null) {
+                result.complete(sent);
+            } else {
+                result.completeExceptionally(timedOut(ex));
+            }
+        });
+        if (deadline != null && !result.isDone()) {
+            Runnable expire = () -> {
+                if (result.completeExceptionally(Deadline.exceeded())) {
+                    // Stops any retries; the attempt in flight ends by its own timeout, which is at the deadline.
+                    response.cancel(true);
+                }
+            };
+            ScheduledFuture<?> timer = deadline.schedule(() -> execute(expire));
+            result.whenComplete((sent, ex) -> timer.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * Runs a task on the executor, or on the default executor of {@link CompletableFuture} if there is none,
+     * so the callbacks of a call never run on the deadline timer's thread.
+     */
+    private void execute(Runnable task) {
+        if (this.executor != null) {
+            this.executor.execute(task);
+        } else {
+            CompletableFuture.runAsync(task);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendHedged(HttpRequest request, Deadline deadline) {
+        if (this.hedger != null) {
+            return this.hedger.send(request, attempt -> sendAttempt(attempt, deadline));
+        }
+        return sendAttempt(request, deadline);
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAttempt(HttpRequest request, Deadline deadline) {
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(Deadline.exceeded());
+        }
+
+        RateLimiter limiter = rateLimiter(request);
+        long wait = 0;
+        if (limiter != null) {
+            wait = limiter.acquire(deadline != null ? deadline.remainingNanos() : Long.MAX_VALUE);
+        }
+        if (wait == RateLimiter.REJECTED || wait == RateLimiter.TOO_LATE) {
+            return CompletableFuture.failedFuture(wait == RateLimiter.REJECTED
+                    ? new RaaSRateLimitedException("Client-side rate limit for the RaaS API reached.")
+                    : Deadline.exceeded());
+        }
+        if (wait == 0) {
+            return sendGuarded(request);
+        }
+        return CompletableFuture.runAsync(() -> { }, delayedExecutor(wait, TimeUnit.NANOSECONDS, this.executor))
+                .thenCompose(ready -> sendGuarded(request));
+    }
+
+    /**
+     * @return a {@link RaaSTimeoutException} if the request timed out, or else the exception itself.
+     */
+    private static Throwable timedOut(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (!(cause instanceof HttpTimeoutException)) {
+            return ex;
+        }
+        RaaSTimeoutException timeout = new RaaSTimeoutException("Request to the RaaS API timed out.");
+        timeout.initCause(cause);
+        return timeout;
+    }
+
+    /**
+     * Sends a request once, if the circuit breaker permits it. The permit is only taken once the request has its
+     * rate limit permit and is about to be sent, so a request that is rate limited or waits for its permit does
+     * not hold (or use up) the breaker's half-open probes.
+     */
+    private CompletableFuture<HttpResponse<String>> sendGuarded(HttpRequest request) {
+        if (this.circuitBreaker == null) {
+            return sendOnce(request);
+        }
+        if (!this.circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new RaaSCircuitOpenException("Circuit breaker is open - the RaaS API is failing or slow."));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response = sendOnce(request);
+        return cancelling(response.whenComplete((result, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause == null || cause instanceof IOException) {
+                boolean failed = cause != null || result.statusCode() >= 500;
+                this.circuitBreaker.record(failed, System.nanoTime() - start);
+            } else {
+                this.circuitBreaker.release();
+            }
+        }), response);
+    }
+
+    /**
+     * Returns a future that completes with {@code dependent} and whose cancellation cancels {@code source}, so that
+     * cancelling the request that lost a hedge reaches the HTTP client (which aborts the exchange from Java 16).
+     * {@code dependent} itself is never cancelled, so the bookkeeping it does still runs once {@code source}
+     * completes. Only needed when hedging.
+     */
+    private <T> CompletableFuture<T> cancelling(CompletableFuture<T> dependent, CompletableFuture<?> source) {
+        if (this.hedger == null) {
+            return dependent;
+        }
+
+        CompletableFuture<T> cancellable = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                source.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        dependent.whenComplete((result, ex) -> {
+            if (ex == null) {
+                cancellable.complete(result);
+            } else {
+                cancellable.completeExceptionally(ex);
+            }
+        });
+        return cancellable;
+    }
+
+    /**
+     * @return the rate limiter for the request's API key and endpoint, or null if it is not rate limited.
+     */
+    private RateLimiter rateLimiter(HttpRequest request) {
+        if (this.rateLimit == null && this.endpointRateLimits.isEmpty()) {
+            return null;
+        }
+
+        String endpoint = endpoint(request);
+        RateLimit limit = this.endpointRateLimits.get(endpoint);
+        String key = request.headers().firstValue("X-API-KEY").orElse("");
+        if (limit != null) {
+            key = key + " " + endpoint;
+        } else if (this.rateLimit != null) {
+            limit = this.rateLimit;
+        } else {
+            return null;
+        }
+
+        RateLimiter limiter = this.rateLimiters.get(key);
+        if (limiter == null) {
+            RateLimit forKey = limit;
+            limiter = this.rateLimiters.computeIfAbsent(key, k -> new RateLimiter(forKey));
+        }
+        return limiter;
+    }
+
+    /**
+     * @return the first segment of the request's path, e.g. "/tree".
+     */
+    static String endpoint(HttpRequest request) {
+        String path = request.uri().getPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    static Executor delayedExecutor(long delay, TimeUnit unit, Executor executor) {
+        return executor == null ? CompletableFuture.delayedExecutor(delay, unit)
+                : CompletableFuture.delayedExecutor(delay, unit, executor);
+    }
+
+    /**
+     * Sends a request once, reporting it to the metrics listener if there is one.
+     */
+    private CompletableFuture<HttpResponse<String>> sendOnce(HttpRequest request) {
+        if (this.metrics == null) {
+            return sendRecorded(request);
+        }
+
+        String endpoint = endpoint(request);
+        String method = request.method();
+        this.metrics.requestStarted(endpoint, method, bodyLength(request));
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> sent = sendRecorded(request);
+        return cancelling(sent.whenComplete((response, ex) -> {
+            long duration = System.nanoTime() - start;
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (ex == null) {
+                this.metrics.requestCompleted(endpoint, method, response.statusCode(), duration,
+                        RequestTemplate.bodyLength(response));
+            } else if (cause instanceof CancellationException) {
+                // Most often the loser of a hedge, which is cancelled on purpose.
+                this.metrics.requestCancelled(endpoint, method, duration);
+            } else {
+                this.metrics.requestFailed(endpoint, method, cause, duration);
+            }
+        }), sent);
+    }
+
+    /**
+     * Sends a request once, recording a {@link SendEvent} if Flight Recorder is recording it.
+     */
+    private CompletableFuture<HttpResponse<String>> sendRecorded(HttpRequest request) {
+        SendEvent event = new SendEvent();
+        if (!event.isEnabled()) {
+            return exchange(request);
+        }
+
+        event.begin();
+        CompletableFuture<HttpResponse<String>> sent = exchange(request);
+        return cancelling(sent.whenComplete((response, ex) -> event.commit(endpoint(request), request.method(),
+                response != null ? response.statusCode() : -1, bodyLength(request),
+                response != null ? RequestTemplate.bodyLength(response) : 0)), sent);
+    }
+
+    private static long bodyLength(HttpRequest request) {
+        return request.bodyPublisher().map(body -> Math.max(0, body.contentLength())).orElse(0L);
+    }
+
+    /**
+     * Makes a call whose request, when made on a virtual thread (Java 21 and later), is sent blocking on that
+     * thread, so the response is handled there rather than handed to the HTTP client's executor and back. On
+     * other threads, and for requests the call starts on other threads, this makes no difference.
+     *
+     * Only for calls that send a single request and wait for it: the call does not return until that request
+     * is done.
+     *
+     * @param call the call.
+     * @return the result of the call.
+     * @throws E if the call throws.
+     */
+    public static <T, E extends Exception> T blocking(Deadline.Call<T, E> call) throws E {
+        if (!VirtualThreads.isVirtual()) {
+            return call.call();
+        }
+        BLOCKING.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            BLOCKING.remove();
+        }
+    }
+
+    /**
+     * Sends a request once, asynchronously unless it is made within {@link #blocking} on a virtual thread.
+     * Hedged requests are always sent asynchronously, as the hedge must be started while the first attempt is
+     * in flight.
+     */
+    private CompletableFuture<HttpResponse<String>> exchange(HttpRequest request) {
+        if (this.hedger != null || BLOCKING.get() == null) {
+            return this.httpClient.sendAsync(request, BodyHandlers.ofString());
+        }
+
+        try {
+            return CompletableFuture.completedFuture(this.httpClient.send(request, BodyHandlers.ofString()));
+        } catch (IOException ex) {
+            return CompletableFuture.failedFuture(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.digitalhumani.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.digitalhumani.config.RateLimit;
+
+/**
+ * A lock-free token bucket.
+ *
+ * Rather than counting tokens, the bucket tracks the time at which it will next be empty (the "generic cell
+ * rate algorithm"), so taking a permit is a single compare-and-set and refilling needs no background task. A
+ * permit may also be reserved ahead of time, in which case the caller is told how long to wait before
+ * using it.
+ */
+final class RateLimiter {
+
+    static final long REJECTED = -1;
+    static final long TOO_LATE = -2;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long maxWaitNanos;
+    private final boolean failFast;
+    private final LongSupplier nanoClock;
+    private final AtomicLong emptyAt;
+
+    RateLimiter(RateLimit limit) {
+        this(limit, System::nanoTime);
+    }
+
+    RateLimiter(RateLimit limit, LongSupplier nanoClock) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / limit.getPermitsPerSecond()));
+        this.burstNanos = this.intervalNanos * limit.getBurst();
+        this.maxWaitNanos = limit.getMaxWait().toNanos();
+        this.failFast = limit.getMode() == RateLimit.Mode.FAIL_FAST;
+        this.nanoClock = nanoClock;
+        this.emptyAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes (or reserves) a permit.
+     *
+     * @return the number of nanoseconds to wait before using the permit (0 if it can be used right away), or
+     *         {@code REJECTED} if no permit was taken.
+     */
+    long acquire() {
+        return acquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes (or reserves) a permit, unless it could not be used within {@code maxWaitNanos}.
+     *
+     * @param maxWaitNanos the longest the caller can wait for the permit, e.g. until its deadline.
+     * @return the number of nanoseconds to wait before using the permit (0 if it can be used right away),
+     *         {@code REJECTED} if no permit was taken because of the rate limit, or {@code TOO_LATE} if no permit
+     *         was taken because the caller could not wait long enough.
+     */
+    long acquire(long maxWaitNanos) {
+        while (true) {
+            long now = this.nanoClock.getAsLong();
+            long current = this.emptyAt.get();
+            long next = Math.max(current, now) + this.intervalNanos;
+            long wait = Math.max(0, next - now - this.burstNanos);
+            if (wait > 0 && (this.failFast || wait > this.maxWaitNanos)) {
+                return REJECTED;
+            }
+            if (wait > maxWaitNanos) {
+                return TOO_LATE;
+            }
+            if (this.emptyAt.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.digitalhumani.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A budget for extra requests (such as retries), earned as a fraction of the original requests.
+ *
+ * Every original request deposits {@code ratio} tokens, up to a balance of {@code burst} tokens, and every
+ * extra request withdraws one. The budget starts full, so occasional extra requests are always allowed.
+ */
+final class RequestBudget {
+
+    // Tokens are held in thousandths so fractional deposits need no floating point arithmetic.
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    RequestBudget(double ratio, int burst) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = burst * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    void deposit() {
+        if (this.balance.get() < this.capacity) {
+            this.balance.accumulateAndGet(this.deposit,
+                    (balance, deposit) -> Math.min(this.capacity, balance + deposit));
+        }
+    }
+
+    boolean tryWithdraw() {
+        while (true) {
+            long current = this.balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (this.balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
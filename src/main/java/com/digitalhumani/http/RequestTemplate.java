@@ -0,0 +1,124 @@
+package com.digitalhumani.http;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Builds requests to one RaaS endpoint, with the base URI and the constant headers worked out once
+ * rather than on every request.
+ */
+public final class RequestTemplate {
+
+    private static final String USER_AGENT = "Digital Humani Java SDK";
+    private static final String CONTENT_TYPE = "application/json";
+
+    private final String baseUrl;
+    private final URI baseUri;
+    private final HttpRequest.Builder headers;
+    private final Duration timeout;
+
+    public RequestTemplate(String url, String relativeUrl, String apiKey) {
+        this(url, relativeUrl, apiKey, null);
+    }
+
+    /**
+     * @param timeout the request timeout, or null for none.
+     */
+    public RequestTemplate(String url, String relativeUrl, String apiKey, Duration timeout) {
+        this.timeout = timeout;
+        this.baseUrl = url + relativeUrl;
+        this.baseUri = URI.create(this.baseUrl);
+        this.headers = HttpRequest.newBuilder().setHeader("Content-Type", CONTENT_TYPE)
+                .setHeader("X-API-KEY", apiKey).setHeader("User-Agent", USER_AGENT);
+    }
+
+    /**
+     * @return the URI of the endpoint itself, e.g. {@code https://api.digitalhumani.com/tree}.
+     */
+    public URI baseUri() {
+        return this.baseUri;
+    }
+
+    /**
+     * @param pathSegments segments to append to the endpoint's path.
+     * @return the URI of the endpoint followed by each segment, e.g. {@code .../tree/<uuid>}.
+     */
+    public URI uri(List<String> pathSegments) {
+        int length = this.baseUrl.length();
+        for (int i = 0; i < pathSegments.size(); i++) {
+            length += pathSegments.get(i).length() + 1;
+        }
+
+        StringBuilder uri = new StringBuilder(length).append(this.baseUrl);
+        for (int i = 0; i < pathSegments.size(); i++) {
+            uri.append('/').append(pathSegments.get(i));
+        }
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * @param queryParams parameters to add as the query string.
+     * @return the URI of the endpoint with the given query string, e.g. {@code .../tree?foo=bar}.
+     */
+    public URI uri(Map<String, String> queryParams) {
+        StringBuilder uri = new StringBuilder(this.baseUrl);
+        char separator = '?';
+        for (Map.Entry<String, String> param : queryParams.entrySet()) {
+            uri.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * @param uri the URI of the request.
+     * @return a new request builder for the URI with the constant headers already set, and a timeout of the
+     *         request timeout or the time left until the current {@link Deadline}, whichever is shorter.
+     */
+    public HttpRequest.Builder newRequest(URI uri) {
+        HttpRequest.Builder builder = this.headers.copy().uri(uri);
+        Duration timeout = Deadline.timeout(this.timeout);
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        return builder;
+    }
+
+    /**
+     * @param statusCode an HTTP status code.
+     * @return whether the status code is in the 2xx range.
+     */
+    public static boolean isSuccess(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * @param response a response.
+     * @return the size of the response body in bytes: its Content-Length, or else the length of its UTF-8
+     *         encoding.
+     */
+    public static long bodyLength(HttpResponse<String> response) {
+        OptionalLong contentLength = response.headers().firstValueAsLong("Content-Length");
+        if (contentLength.isPresent()) {
+            return contentLength.getAsLong();
+        }
+        String body = response.body();
+        if (body == null) {
+            return 0;
+        }
+        long length = body.length();
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c >= 0x80) {
+                // Two bytes for up to U+07FF, three for the rest; a surrogate pair is four bytes in total.
+                length += c < 0x800 ? 1 : Character.isSurrogate(c) ? 1 : 2;
+            }
+        }
+        return length;
+    }
+}
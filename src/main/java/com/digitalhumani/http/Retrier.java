@@ -0,0 +1,144 @@
+package com.digitalhumani.http;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.digitalhumani.config.RetryPolicy;
+
+/**
+ * Retries requests according to a {@link RetryPolicy}.
+ *
+ * Retries are scheduled on a timer rather than by blocking a thread, and each attempt is sent with the
+ * same (immutable) request.
+ */
+final class Retrier {
+
+    private static final long NO_RETRY = -1;
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final boolean retryPosts;
+    private final RequestBudget budget;
+    private final Executor executor;
+
+    Retrier(RetryPolicy policy, Executor executor) {
+        this.maxAttempts = policy.getMaxAttempts();
+        this.initialBackoffMillis = policy.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = policy.getMaxBackoff().toMillis();
+        this.retryPosts = policy.isRetryPosts();
+        this.budget = new RequestBudget(policy.getBudgetRatio(), policy.getBudgetBurst());
+        this.executor = executor;
+    }
+
+    CompletableFuture<HttpResponse<String>> send(HttpRequest request,
+            Function<HttpRequest, CompletableFuture<HttpResponse<String>>> attempt) {
+        if (this.maxAttempts == 1 || !appliesTo(request.method())) {
+            return attempt.apply(request);
+        }
+
+        this.budget.deposit();
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        send(request, attempt, 1, result);
+        return result;
+    }
+
+    private boolean appliesTo(String method) {
+        return "GET".equals(method) || "DELETE".equals(method) || (this.retryPosts && "POST".equals(method));
+    }
+
+    private void send(HttpRequest request, Function<HttpRequest, CompletableFuture<HttpResponse<String>>> attempt,
+            int attempts, CompletableFuture<HttpResponse<String>> result) {
+        if (result.isDone()) {
+            // Cancelled while waiting to retry, e.g. when the deadline of the call passed.
+            return;
+        }
+        attempt.apply(request).whenComplete((response, ex) -> {
+            long delay = attempts < this.maxAttempts && !result.isDone() ? retryDelay(attempts, response, ex)
+                    : NO_RETRY;
+            if (delay == NO_RETRY || !this.budget.tryWithdraw()) {
+                if (ex == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(unwrap(ex));
+                }
+                return;
+            }
+
+            RaaSTransport.delayedExecutor(delay, TimeUnit.MILLISECONDS, this.executor)
+                    .execute(() -> send(request, attempt, attempts + 1, result));
+        });
+    }
+
+    /**
+     * @return the number of milliseconds to wait before retrying, or {@code NO_RETRY} if the outcome of the
+     *         attempt should be returned.
+     */
+    private long retryDelay(int attempts, HttpResponse<String> response, Throwable ex) {
+        if (ex != null) {
+            return unwrap(ex) instanceof IOException ? backoff(attempts) : NO_RETRY;
+        }
+
+        int status = response.statusCode();
+        switch (status) {
+            case 429:
+            case 503:
+                Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+                if (retryAfter.isPresent()) {
+                    long millis = parseRetryAfter(retryAfter.get());
+                    if (millis >= 0) {
+                        return millis <= this.maxBackoffMillis ? millis : NO_RETRY;
+                    }
+                }
+                return backoff(attempts);
+            case 500:
+            case 502:
+            case 504:
+                return backoff(attempts);
+            default:
+                return NO_RETRY;
+        }
+    }
+
+    private long backoff(int attempts) {
+        long backoff = this.initialBackoffMillis << Math.min(attempts - 1, 30);
+        if (backoff > this.maxBackoffMillis || backoff < 0) {
+            backoff = this.maxBackoffMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * @return the delay in milliseconds given by a {@code Retry-After} header (in seconds or as an HTTP date),
+     *         or -1 if it cannot be parsed.
+     */
+    static long parseRetryAfter(String value) {
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (NumberFormatException ex) {
+            // fall through to the HTTP date format
+        }
+        try {
+            long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - System.currentTimeMillis());
+        } catch (DateTimeParseException ex) {
+            return -1;
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
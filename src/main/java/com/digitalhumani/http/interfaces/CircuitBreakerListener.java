@@ -0,0 +1,11 @@
+package com.digitalhumani.http.interfaces;
+
+import com.digitalhumani.http.CircuitBreakerState;
+
+public interface CircuitBreakerListener {
+    /**
+     * Called after the circuit breaker changed state, on the thread that caused the change. Implementations
+     * should return quickly and not throw.
+     */
+    void onStateChange(CircuitBreakerState from, CircuitBreakerState to);
+}
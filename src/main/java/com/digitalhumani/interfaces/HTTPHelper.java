@@ -2,6 +2,7 @@ package com.digitalhumani.interfaces;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
@@ -10,7 +11,28 @@ import com.digitalhumani.exceptions.RaaSException;
 
 public interface HTTPHelper<U, T> {
     String toJson(U request) throws RaaSException;
+
+    default byte[] toJsonBytes(U request) throws RaaSException {
+        return toJson(request).getBytes(StandardCharsets.UTF_8);
+    }
+
     HttpRequest buildPostRequest(String requestBody);
+
+    default HttpRequest buildPostRequest(byte[] requestBody) {
+        return buildPostRequest(new String(requestBody, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a POST request with an {@code Idempotency-Key} header. By default only without a key, as the
+     * request built by {@link #buildPostRequest(String)} cannot be given headers afterwards.
+     */
+    default HttpRequest buildPostRequest(byte[] requestBody, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            throw new UnsupportedOperationException("Idempotency keys are not supported");
+        }
+        return buildPostRequest(requestBody);
+    }
+
     HttpRequest buildGetRequest(HashMap<String, String> queryParams);
     HttpRequest buildGetRequest(List<String> params);
     HttpRequest buildDeleteRequest(List<String> params);
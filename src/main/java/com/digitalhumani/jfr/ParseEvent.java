@@ -0,0 +1,41 @@
+package com.digitalhumani.jfr;
+
+import java.net.http.HttpResponse;
+
+import com.digitalhumani.http.RequestTemplate;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.digitalhumani.Parse")
+@Label("RaaS Parse")
+@Category({ "DigitalHumani", "RaaS" })
+@Description("Parsing a response from the RaaS API")
+public final class ParseEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadSize;
+
+    /**
+     * Ends the event and commits it, if it is enabled and long enough to be recorded.
+     */
+    public void commit(String endpoint, HttpResponse<String> response) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.status = response.statusCode();
+            this.payloadSize = RequestTemplate.bodyLength(response);
+            commit();
+        }
+    }
+}
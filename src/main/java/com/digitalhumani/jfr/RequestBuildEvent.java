@@ -0,0 +1,31 @@
+package com.digitalhumani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.digitalhumani.RequestBuild")
+@Label("RaaS Request Build")
+@Category({ "DigitalHumani", "RaaS" })
+@Description("Building a request to the RaaS API")
+public final class RequestBuildEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    /**
+     * Ends the event and commits it, if it is enabled and long enough to be recorded.
+     */
+    public void commit(String endpoint, String method) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.method = method;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.digitalhumani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.digitalhumani.Send")
+@Label("RaaS Send")
+@Category({ "DigitalHumani", "RaaS" })
+@Description("Sending one attempt of a request to the RaaS API and waiting for the response; committed on the "
+        + "thread that received the response")
+public final class SendEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Status")
+    @Description("The status code of the response, or -1 if no response was received")
+    int status;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+
+    /**
+     * Ends the event and commits it, if it is enabled and long enough to be recorded.
+     */
+    public void commit(String endpoint, String method, int status, long bytesSent, long bytesReceived) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.method = method;
+            this.status = status;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            commit();
+        }
+    }
+}
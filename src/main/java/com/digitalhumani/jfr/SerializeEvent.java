@@ -0,0 +1,33 @@
+package com.digitalhumani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.digitalhumani.Serialize")
+@Label("RaaS Serialize")
+@Category({ "DigitalHumani", "RaaS" })
+@Description("Serializing the JSON body of a request to the RaaS API")
+public final class SerializeEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadSize;
+
+    /**
+     * Ends the event and commits it, if it is enabled and long enough to be recorded.
+     */
+    public void commit(String endpoint, long payloadSize) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.payloadSize = payloadSize;
+            commit();
+        }
+    }
+}
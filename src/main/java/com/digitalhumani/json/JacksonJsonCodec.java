@@ -0,0 +1,36 @@
+package com.digitalhumani.json;
+
+import java.io.IOException;
+
+import com.digitalhumani.json.interfaces.JsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * A JSON codec backed by Jackson. Requires {@code jackson-databind} on the classpath, which is an optional
+ * dependency of the SDK.
+ */
+public class JacksonJsonCodec implements JsonCodec {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter objectWriter;
+
+    public JacksonJsonCodec() {
+        this(new ObjectMapper());
+    }
+
+    public JacksonJsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer();
+    }
+
+    @Override
+    public byte[] write(Object value) throws IOException {
+        return this.objectWriter.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T read(String json, Class<T> type) throws IOException {
+        return this.objectMapper.readValue(json, type);
+    }
+}
@@ -0,0 +1,246 @@
+package com.digitalhumani.json;
+
+import java.io.IOException;
+
+/**
+ * A minimal pull parser for the flat JSON objects returned by the RaaS API.
+ *
+ * Nested objects and arrays are only supported by {@link #skipValue()}, which is enough to ignore
+ * fields the SDK does not know about.
+ */
+final class JsonReader {
+
+    private final String json;
+    private int position;
+    private boolean firstField;
+
+    JsonReader(String json) throws IOException {
+        if (json == null) {
+            throw new IOException("No JSON content");
+        }
+        this.json = json;
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+        this.firstField = true;
+    }
+
+    /**
+     * @return the name of the next field, or null at the end of the object (which is consumed).
+     */
+    String nextName() throws IOException {
+        char c = peek();
+        if (c == '}') {
+            this.position++;
+            return null;
+        }
+        if (!this.firstField) {
+            expect(',');
+        }
+        this.firstField = false;
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    String nextString() throws IOException {
+        if (peek() == 'n') {
+            readLiteral("null");
+            return null;
+        }
+        return readString();
+    }
+
+    Integer nextInteger() throws IOException {
+        char c = peek();
+        if (c == 'n') {
+            readLiteral("null");
+            return null;
+        }
+        if (c == '"') {
+            // Like Jackson, accept integers sent as strings.
+            try {
+                return Integer.valueOf(readString());
+            } catch (NumberFormatException ex) {
+                throw error("Expected an integer");
+            }
+        }
+
+        int start = this.position;
+        if (c == '-') {
+            this.position++;
+        }
+        while (this.position < this.json.length() && Character.isDigit(this.json.charAt(this.position))) {
+            this.position++;
+        }
+        if (this.position < this.json.length() && isNumberPart(this.json.charAt(this.position))) {
+            throw error("Expected an integer");
+        }
+        try {
+            return Integer.valueOf(this.json.substring(start, this.position));
+        } catch (NumberFormatException ex) {
+            throw error("Expected an integer");
+        }
+    }
+
+    void skipValue() throws IOException {
+        char c = peek();
+        switch (c) {
+        case '"':
+            readString();
+            break;
+        case '{':
+        case '[':
+            skipNested();
+            break;
+        case 't':
+            readLiteral("true");
+            break;
+        case 'f':
+            readLiteral("false");
+            break;
+        case 'n':
+            readLiteral("null");
+            break;
+        default:
+            int start = this.position;
+            while (this.position < this.json.length() && isNumberPart(this.json.charAt(this.position))) {
+                this.position++;
+            }
+            if (start == this.position) {
+                throw error("Unexpected character");
+            }
+        }
+    }
+
+    void endDocument() throws IOException {
+        skipWhitespace();
+        if (this.position != this.json.length()) {
+            throw error("Unexpected content after JSON value");
+        }
+    }
+
+    private void skipNested() throws IOException {
+        int depth = 0;
+        do {
+            char c = peek();
+            if (c == '"') {
+                readString();
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+            this.position++;
+        } while (depth > 0);
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder builder = null;
+        int start = this.position;
+        while (this.position < this.json.length()) {
+            char c = this.json.charAt(this.position);
+            if (c == '"') {
+                String value = builder == null ? this.json.substring(start, this.position)
+                        : builder.append(this.json, start, this.position).toString();
+                this.position++;
+                return value;
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(this.json, start, this.position);
+                builder.append(readEscape());
+                start = this.position;
+                continue;
+            }
+            if (c < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+            this.position++;
+        }
+        throw error("Unterminated string");
+    }
+
+    private char readEscape() throws IOException {
+        this.position++; // the backslash
+        if (this.position >= this.json.length()) {
+            throw error("Unterminated escape sequence");
+        }
+        char c = this.json.charAt(this.position++);
+        switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+            return c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            if (this.position + 4 > this.json.length()) {
+                throw error("Invalid unicode escape");
+            }
+            try {
+                char unicode = (char) Integer.parseInt(this.json.substring(this.position, this.position + 4), 16);
+                this.position += 4;
+                return unicode;
+            } catch (NumberFormatException ex) {
+                throw error("Invalid unicode escape");
+            }
+        default:
+            throw error("Invalid escape sequence");
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        if (!this.json.startsWith(literal, this.position)) {
+            throw error("Unexpected character");
+        }
+        this.position += literal.length();
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error(String.format("Expected '%s'", expected));
+        }
+        this.position++;
+    }
+
+    private char peek() throws IOException {
+        skipWhitespace();
+        if (this.position >= this.json.length()) {
+            throw error("Unexpected end of JSON content");
+        }
+        return this.json.charAt(this.position);
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.json.length()) {
+            char c = this.json.charAt(this.position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            this.position++;
+        }
+    }
+
+    private static boolean isNumberPart(char c) {
+        return Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private IOException error(String message) {
+        return new IOException(String.format("%s at position %s", message, this.position));
+    }
+}
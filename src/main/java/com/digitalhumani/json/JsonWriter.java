@@ -0,0 +1,161 @@
+package com.digitalhumani.json;
+
+import java.util.Arrays;
+
+/**
+ * A minimal compact JSON writer that encodes straight to UTF-8 bytes in a buffer reused per thread.
+ */
+final class JsonWriter {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final ThreadLocal<JsonWriter> CACHED = ThreadLocal.withInitial(JsonWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+    private boolean firstField;
+
+    private JsonWriter() { }
+
+    static JsonWriter acquire() {
+        JsonWriter writer = CACHED.get();
+        if (writer.buffer.length > MAX_RETAINED_CAPACITY) {
+            writer.buffer = new byte[INITIAL_CAPACITY];
+        }
+        writer.position = 0;
+        return writer;
+    }
+
+    JsonWriter beginObject() {
+        writeByte('{');
+        this.firstField = true;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        writeByte('}');
+        return this;
+    }
+
+    JsonWriter field(String name, String value) {
+        name(name);
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    JsonWriter field(String name, Integer value) {
+        name(name);
+        writeAscii(value == null ? "null" : value.toString());
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.position);
+    }
+
+    private void name(String name) {
+        if (!this.firstField) {
+            writeByte(',');
+        }
+        this.firstField = false;
+        writeString(name);
+        writeByte(':');
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAsciiChar(c);
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                this.buffer[this.position++] = (byte) (0xc0 | (c >> 6));
+                this.buffer[this.position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                this.buffer[this.position++] = (byte) (0xf0 | (codePoint >> 18));
+                this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                this.buffer[this.position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates cannot be encoded as UTF-8, so escape them.
+                writeUnicodeEscape(c);
+            } else {
+                ensureCapacity(3);
+                this.buffer[this.position++] = (byte) (0xe0 | (c >> 12));
+                this.buffer[this.position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                this.buffer[this.position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAsciiChar(char c) {
+        switch (c) {
+        case '"':
+            writeAscii("\\\"");
+            break;
+        case '\\':
+            writeAscii("\\\\");
+            break;
+        case '\n':
+            writeAscii("\\n");
+            break;
+        case '\r':
+            writeAscii("\\r");
+            break;
+        case '\t':
+            writeAscii("\\t");
+            break;
+        case '\b':
+            writeAscii("\\b");
+            break;
+        case '\f':
+            writeAscii("\\f");
+            break;
+        default:
+            if (c < 0x20) {
+                writeUnicodeEscape(c);
+            } else {
+                writeByte(c);
+            }
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        this.buffer[this.position++] = '\\';
+        this.buffer[this.position++] = 'u';
+        this.buffer[this.position++] = HEX[(c >> 12) & 0xf];
+        this.buffer[this.position++] = HEX[(c >> 8) & 0xf];
+        this.buffer[this.position++] = HEX[(c >> 4) & 0xf];
+        this.buffer[this.position++] = HEX[c & 0xf];
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer[this.position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (this.position + extra > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + extra));
+        }
+    }
+}
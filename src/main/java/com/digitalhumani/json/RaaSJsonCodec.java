@@ -0,0 +1,133 @@
+package com.digitalhumani.json;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import com.digitalhumani.enterprise.models.EnterpriseRequest;
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.json.interfaces.JsonCodec;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * The default JSON codec. Reads and writes the SDK's models by hand, without reflection or any
+ * third-party dependencies.
+ */
+public class RaaSJsonCodec implements JsonCodec {
+
+    @Override
+    public byte[] write(Object value) throws IOException {
+        if (value instanceof TreePlantingRequest) {
+            return writeTreePlantingRequest((TreePlantingRequest) value);
+        }
+        if (value instanceof EnterpriseRequest) {
+            return writeEnterpriseRequest((EnterpriseRequest) value);
+        }
+        throw new IOException(String.format("Unable to write JSON for %s", value == null ? null : value.getClass()));
+    }
+
+    @Override
+    public <T> T read(String json, Class<T> type) throws IOException {
+        if (type == TreesPlanted.class) {
+            return type.cast(readTreesPlanted(json));
+        }
+        if (type == TreesPlantedForMonth.class) {
+            return type.cast(readTreesPlantedForMonth(json));
+        }
+        throw new IOException(String.format("Unable to read JSON as %s", type));
+    }
+
+    private byte[] writeTreePlantingRequest(TreePlantingRequest request) throws IOException {
+        return JsonWriter.acquire().beginObject()
+                .field("enterpriseId", required("enterpriseId", request.getEnterpriseId()))
+                .field("projectId", required("projectId", request.getProjectId()))
+                .field("user", required("user", request.getUser()))
+                .field("treeCount", required("treeCount", request.getTreeCount()))
+                .endObject().toByteArray();
+    }
+
+    private byte[] writeEnterpriseRequest(EnterpriseRequest request) throws IOException {
+        return JsonWriter.acquire().beginObject()
+                .field("enterpriseId", required("enterpriseId", request.getEnterpriseId()))
+                .field("month", required("month", request.getMonth()))
+                .endObject().toByteArray();
+    }
+
+    private TreesPlanted readTreesPlanted(String json) throws IOException {
+        String uuid = null;
+        String enterpriseId = null;
+        String projectId = null;
+        String user = null;
+        Integer treeCount = null;
+        Date created = null;
+
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        String name;
+        while ((name = reader.nextName()) != null) {
+            switch (name) {
+            case "uuid":
+                uuid = reader.nextString();
+                break;
+            case "enterpriseId":
+                enterpriseId = reader.nextString();
+                break;
+            case "projectId":
+                projectId = reader.nextString();
+                break;
+            case "user":
+                user = reader.nextString();
+                break;
+            case "treeCount":
+                treeCount = reader.nextInteger();
+                break;
+            case "created":
+                created = toDate(reader.nextString());
+                break;
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endDocument();
+
+        return new TreesPlanted(uuid, enterpriseId, projectId, user, treeCount, created);
+    }
+
+    private TreesPlantedForMonth readTreesPlantedForMonth(String json) throws IOException {
+        Integer count = null;
+
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        String name;
+        while ((name = reader.nextName()) != null) {
+            if (name.equals("count")) {
+                count = reader.nextInteger();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endDocument();
+
+        return new TreesPlantedForMonth(count);
+    }
+
+    private static Date toDate(String value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException ex) {
+            throw new IOException(String.format("Invalid date '%s'", value), ex);
+        }
+    }
+
+    private static <V> V required(String field, V value) throws IOException {
+        if (value == null) {
+            throw new IOException(String.format("Missing required field '%s'", field));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,13 @@
+package com.digitalhumani.json.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Converts the SDK's request and response models to and from JSON.
+ *
+ * The SDK uses {@link com.digitalhumani.json.RaaSJsonCodec} by default. Implementations must be thread safe.
+ */
+public interface JsonCodec {
+    byte[] write(Object value) throws IOException;
+    <T> T read(String json, Class<T> type) throws IOException;
+}
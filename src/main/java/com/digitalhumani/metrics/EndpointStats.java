@@ -0,0 +1,103 @@
+package com.digitalhumani.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A snapshot of the measurements of the requests to one endpoint of the RaaS API. Latencies are in
+ * milliseconds.
+ */
+public final class EndpointStats {
+
+    private final String endpoint;
+    private final long requests;
+    private final long inFlight;
+    private final long failures;
+    private final long parseFailures;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final Map<Integer, Long> statusCodes;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double maxMillis;
+
+    EndpointStats(String endpoint, long requests, long inFlight, long failures, long parseFailures,
+            long bytesSent, long bytesReceived, Map<Integer, Long> statusCodes, LatencyHistogram latency) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.inFlight = inFlight;
+        this.failures = failures;
+        this.parseFailures = parseFailures;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.statusCodes = Collections.unmodifiableMap(statusCodes);
+        this.meanMillis = latency.getMean() / 1e6;
+        this.p50Millis = latency.getPercentile(50) / 1e6;
+        this.p99Millis = latency.getPercentile(99) / 1e6;
+        this.p999Millis = latency.getPercentile(99.9) / 1e6;
+        this.maxMillis = latency.getMax() / 1e6;
+    }
+
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * @return the number of requests sent, including those still in flight.
+     */
+    public long getRequests() {
+        return this.requests;
+    }
+
+    public long getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * @return the number of requests that got no response, e.g. because the connection failed.
+     */
+    public long getFailures() {
+        return this.failures;
+    }
+
+    public long getParseFailures() {
+        return this.parseFailures;
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return this.bytesReceived;
+    }
+
+    /**
+     * @return the number of responses with each status code.
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        return this.statusCodes;
+    }
+
+    public double getMeanMillis() {
+        return this.meanMillis;
+    }
+
+    public double getP50Millis() {
+        return this.p50Millis;
+    }
+
+    public double getP99Millis() {
+        return this.p99Millis;
+    }
+
+    public double getP999Millis() {
+        return this.p999Millis;
+    }
+
+    public double getMaxMillis() {
+        return this.maxMillis;
+    }
+}
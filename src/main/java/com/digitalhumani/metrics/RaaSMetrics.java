@@ -0,0 +1,167 @@
+package com.digitalhumani.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.digitalhumani.metrics.interfaces.RaaSMetricsListener;
+import com.digitalhumani.metrics.interfaces.RaaSMetricsMXBean;
+
+/**
+ * The SDK's built-in {@link RaaSMetricsListener}: keeps per-endpoint latency histograms, status code counts,
+ * in-flight gauges, byte counts and parse failure counts in memory, and exposes them as a JMX MXBean.
+ *
+ * Recording only increments counters ({@link LongAdder}s and a {@link LatencyHistogram}), so it adds little
+ * to each request and never blocks.
+ */
+public final class RaaSMetrics implements RaaSMetricsListener, RaaSMetricsMXBean {
+
+    private static final String OBJECT_NAME = "com.digitalhumani:type=RaaSMetrics,name=";
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    /**
+     * The measurements of one endpoint. Everything but the in-flight gauge is held in a {@link Counters}
+     * instance, which is replaced on reset.
+     */
+    private static final class Endpoint {
+        final LongAdder inFlight = new LongAdder();
+        volatile Counters counters = new Counters();
+    }
+
+    private static final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder parseFailures = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LongAdder bytesReceived = new LongAdder();
+        final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    @Override
+    public void requestStarted(String endpoint, String method, long bytesSent) {
+        Endpoint metrics = endpoint(endpoint);
+        metrics.inFlight.increment();
+        Counters counters = metrics.counters;
+        counters.requests.increment();
+        counters.bytesSent.add(bytesSent);
+    }
+
+    @Override
+    public void requestCompleted(String endpoint, String method, int statusCode, long durationNanos,
+            long bytesReceived) {
+        Endpoint metrics = endpoint(endpoint);
+        metrics.inFlight.decrement();
+        Counters counters = metrics.counters;
+        counters.latency.record(durationNanos);
+        counters.bytesReceived.add(bytesReceived);
+        LongAdder statusCount = counters.statusCodes.get(statusCode);
+        if (statusCount == null) {
+            statusCount = counters.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder());
+        }
+        statusCount.increment();
+    }
+
+    @Override
+    public void requestFailed(String endpoint, String method, Throwable error, long durationNanos) {
+        Endpoint metrics = endpoint(endpoint);
+        metrics.inFlight.decrement();
+        metrics.counters.failures.increment();
+    }
+
+    @Override
+    public void requestCancelled(String endpoint, String method, long durationNanos) {
+        endpoint(endpoint).inFlight.decrement();
+    }
+
+    @Override
+    public void parseFailed(String endpoint) {
+        endpoint(endpoint).counters.parseFailures.increment();
+    }
+
+    /**
+     * @return a snapshot of the measurements of the endpoint, or null if no requests have been made to it.
+     */
+    public EndpointStats getEndpoint(String endpoint) {
+        Endpoint metrics = this.endpoints.get(endpoint);
+        return metrics != null ? snapshot(endpoint, metrics) : null;
+    }
+
+    @Override
+    public List<EndpointStats> getEndpoints() {
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(this.endpoints).entrySet()) {
+            stats.add(snapshot(entry.getKey(), entry.getValue()));
+        }
+        return stats;
+    }
+
+    @Override
+    public long getInFlight() {
+        long inFlight = 0;
+        for (Endpoint metrics : this.endpoints.values()) {
+            inFlight += metrics.inFlight.sum();
+        }
+        return inFlight;
+    }
+
+    @Override
+    public void reset() {
+        for (Endpoint metrics : this.endpoints.values()) {
+            metrics.counters = new Counters();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, as
+     * {@code com.digitalhumani:type=RaaSMetrics,name=<name>}.
+     *
+     * @param name a name distinguishing these metrics from those of other RaaS instances.
+     * @return the object name the metrics were registered as.
+     * @throws JMException if the metrics could not be registered, e.g. because the name is already taken.
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they were registered.
+     *
+     * @throws JMException if the metrics could not be unregistered.
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (this.objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+            this.objectName = null;
+        }
+    }
+
+    private Endpoint endpoint(String endpoint) {
+        Endpoint metrics = this.endpoints.get(endpoint);
+        if (metrics == null) {
+            metrics = this.endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        }
+        return metrics;
+    }
+
+    private static EndpointStats snapshot(String endpoint, Endpoint metrics) {
+        Counters counters = metrics.counters;
+        Map<Integer, Long> statusCodes = new TreeMap<>();
+        counters.statusCodes.forEach((code, count) -> statusCodes.put(code, count.sum()));
+        return new EndpointStats(endpoint, counters.requests.sum(), metrics.inFlight.sum(),
+                counters.failures.sum(), counters.parseFailures.sum(), counters.bytesSent.sum(),
+                counters.bytesReceived.sum(), statusCodes, counters.latency);
+    }
+}
@@ -0,0 +1,67 @@
+package com.digitalhumani.metrics.interfaces;
+
+/**
+ * Receives measurements of the requests made to the RaaS API, e.g. to export them to a monitoring system.
+ *
+ * Every attempt to send a request is reported, so a retried request is reported once per attempt, and every
+ * started request ends with one call to {@code requestCompleted}, {@code requestFailed} or
+ * {@code requestCancelled}. Endpoints
+ * are the first segment of the request's path, e.g. "/tree". Methods are called concurrently from the threads
+ * sending requests and handling responses; implementations should return quickly and not throw. All methods
+ * do nothing by default.
+ */
+public interface RaaSMetricsListener {
+
+    /**
+     * Called when a request is about to be sent.
+     *
+     * @param endpoint the endpoint of the request.
+     * @param method the HTTP method of the request.
+     * @param bytesSent the size of the request body in bytes.
+     */
+    default void requestStarted(String endpoint, String method, long bytesSent) {
+    }
+
+    /**
+     * Called when a response to a request has been received, whatever its status.
+     *
+     * @param endpoint the endpoint of the request.
+     * @param method the HTTP method of the request.
+     * @param statusCode the status code of the response.
+     * @param durationNanos the time from sending the request to receiving the whole response.
+     * @param bytesReceived the size of the response body in bytes.
+     */
+    default void requestCompleted(String endpoint, String method, int statusCode, long durationNanos,
+            long bytesReceived) {
+    }
+
+    /**
+     * Called when no response to a request was received, e.g. because the connection failed.
+     *
+     * @param endpoint the endpoint of the request.
+     * @param method the HTTP method of the request.
+     * @param error the reason no response was received.
+     * @param durationNanos the time from sending the request to the failure.
+     */
+    default void requestFailed(String endpoint, String method, Throwable error, long durationNanos) {
+    }
+
+    /**
+     * Called when a request was cancelled before its response arrived, e.g. because it lost a hedge race or
+     * its call's deadline passed. Not a failure of the RaaS API.
+     *
+     * @param endpoint the endpoint of the request.
+     * @param method the HTTP method of the request.
+     * @param durationNanos the time from sending the request to its cancellation.
+     */
+    default void requestCancelled(String endpoint, String method, long durationNanos) {
+    }
+
+    /**
+     * Called when a response could not be parsed.
+     *
+     * @param endpoint the endpoint of the request.
+     */
+    default void parseFailed(String endpoint) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.digitalhumani.metrics.interfaces;
+
+import java.util.List;
+
+import com.digitalhumani.metrics.EndpointStats;
+
+/**
+ * The JMX view of {@link com.digitalhumani.metrics.RaaSMetrics}.
+ */
+public interface RaaSMetricsMXBean {
+
+    /**
+     * @return a snapshot of the measurements of each endpoint.
+     */
+    List<EndpointStats> getEndpoints();
+
+    /**
+     * @return the number of requests in flight, across all endpoints.
+     */
+    long getInFlight();
+
+    /**
+     * Clears all measurements (except the requests in flight).
+     */
+    void reset();
+}
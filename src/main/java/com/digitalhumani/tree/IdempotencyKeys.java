@@ -0,0 +1,127 @@
+package com.digitalhumani.tree;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * Remembers the plantings made with each idempotency key for a time window, so a planting sent again with the
+ * same key within the window is served the original result instead of planting trees twice.
+ *
+ * A planting still in flight is shared with duplicates of it. A planting that failed is forgotten, so it can
+ * be sent again. At most {@code maxKeys} keys are remembered; when full, the oldest key is forgotten first.
+ * Every key is remembered for the same window, so the oldest keys are also the first to expire.
+ */
+class IdempotencyKeys {
+
+    @FunctionalInterface
+    interface Call {
+        CompletableFuture<TreesPlanted> call() throws RaaSException;
+    }
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    IdempotencyKeys(Duration window, int maxKeys) {
+        this(window, maxKeys, System::nanoTime);
+    }
+
+    IdempotencyKeys(Duration window, int maxKeys, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKeys.Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Makes the call, unless one was already made with the same key within the window, in which case its
+     * result is returned.
+     *
+     * @return a future for the result of the call. Each caller gets its own future, so cancelling it does
+     *         not affect other callers.
+     * @throws RaaSException if this caller made the call and it threw.
+     */
+    CompletableFuture<TreesPlanted> execute(String key, Call call) throws RaaSException {
+        CompletableFuture<TreesPlanted> shared = new CompletableFuture<>();
+        Entry entry = new Entry(shared, this.nanoClock.getAsLong() + this.windowNanos);
+
+        CompletableFuture<TreesPlanted> existing = null;
+        synchronized (this.entries) {
+            expire();
+            Entry current = this.entries.get(key);
+            if (current != null) {
+                existing = current.result;
+            } else {
+                this.entries.put(key, entry);
+            }
+        }
+        if (existing != null) {
+            return existing.thenApply(result -> result);
+        }
+
+        CompletableFuture<TreesPlanted> response;
+        try {
+            response = call.call();
+        } catch (RaaSException | RuntimeException ex) {
+            forget(key, entry);
+            shared.completeExceptionally(ex);
+            throw ex;
+        }
+
+        response.whenComplete((result, ex) -> {
+            if (ex != null || result == null || !result.isSuccess()) {
+                forget(key, entry);
+            }
+            if (ex == null) {
+                shared.complete(result);
+            } else {
+                shared.completeExceptionally(ex);
+            }
+        });
+        return shared.thenApply(result -> result);
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            expire();
+            return this.entries.size();
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        synchronized (this.entries) {
+            this.entries.remove(key, entry);
+        }
+    }
+
+    private void expire() {
+        long now = this.nanoClock.getAsLong();
+        Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().expiresAt >= 0) {
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<TreesPlanted> result;
+        private final long expiresAt;
+
+        Entry(CompletableFuture<TreesPlanted> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
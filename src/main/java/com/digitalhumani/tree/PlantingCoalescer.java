@@ -0,0 +1,145 @@
+package com.digitalhumani.tree;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * Merges single tree requests for the same enterprise, project and user into one request for the
+ * combined number of trees.
+ */
+class PlantingCoalescer {
+
+    interface Sender {
+        CompletableFuture<TreesPlanted> send(TreePlantingRequest request) throws RaaSException;
+    }
+
+    private final ConcurrentHashMap<Key, Batch> batches = new ConcurrentHashMap<>();
+    private final Executor flushExecutor;
+    private final int maxTrees;
+    private final Sender sender;
+
+    PlantingCoalescer(Duration window, int maxTrees, Sender sender) {
+        this.flushExecutor = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+        this.maxTrees = maxTrees;
+        this.sender = sender;
+    }
+
+    CompletableFuture<TreesPlanted> plantATree(String enterpriseId, String projectId, String user) {
+        Key key = new Key(enterpriseId, projectId, user);
+        CompletableFuture<TreesPlanted> future = new CompletableFuture<>();
+
+        while (true) {
+            Batch batch = this.batches.computeIfAbsent(key, Batch::new);
+            int count = batch.add(future);
+            if (count == 1) {
+                this.flushExecutor.execute(() -> flush(batch));
+            }
+            if (count == this.maxTrees) {
+                flush(batch);
+            }
+            if (count > 0) {
+                return future;
+            }
+            // The batch was closed between being looked up and being joined, so start a new one.
+            this.batches.remove(key, batch);
+        }
+    }
+
+    private void flush(Batch batch) {
+        List<CompletableFuture<TreesPlanted>> callers = batch.close();
+        this.batches.remove(batch.key, batch);
+        if (callers == null) {
+            return;
+        }
+
+        TreePlantingRequest request = new TreePlantingRequest(batch.key.enterpriseId, batch.key.projectId,
+                batch.key.user, callers.size());
+        CompletableFuture<TreesPlanted> response;
+        try {
+            response = this.sender.send(request);
+        } catch (RaaSException | RuntimeException ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+
+        response.whenComplete((treesPlanted, ex) -> {
+            for (CompletableFuture<TreesPlanted> caller : callers) {
+                if (ex == null) {
+                    caller.complete(treesPlanted);
+                } else {
+                    caller.completeExceptionally(ex);
+                }
+            }
+        });
+    }
+
+    private static final class Batch {
+        private final Key key;
+        private List<CompletableFuture<TreesPlanted>> callers = new ArrayList<>();
+
+        Batch(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * @return the number of callers in the batch including this one, or 0 if the batch has already been
+         *         closed.
+         */
+        synchronized int add(CompletableFuture<TreesPlanted> caller) {
+            if (this.callers == null) {
+                return 0;
+            }
+            this.callers.add(caller);
+            return this.callers.size();
+        }
+
+        /**
+         * @return the callers in the batch, or null if the batch had already been closed.
+         */
+        synchronized List<CompletableFuture<TreesPlanted>> close() {
+            List<CompletableFuture<TreesPlanted>> closed = this.callers;
+            this.callers = null;
+            return closed;
+        }
+    }
+
+    private static final class Key {
+        private final String enterpriseId;
+        private final String projectId;
+        private final String user;
+
+        Key(String enterpriseId, String projectId, String user) {
+            this.enterpriseId = enterpriseId;
+            this.projectId = projectId;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(this.enterpriseId, other.enterpriseId)
+                    && Objects.equals(this.projectId, other.projectId)
+                    && Objects.equals(this.user, other.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.enterpriseId, this.projectId, this.user);
+        }
+    }
+}
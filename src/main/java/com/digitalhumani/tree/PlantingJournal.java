@@ -0,0 +1,366 @@
+package com.digitalhumani.tree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import com.digitalhumani.tree.models.TreePlantingRequest;
+
+/**
+ * An append-only journal of tree planting requests, stored in memory-mapped segment files.
+ *
+ * Each segment starts with a header of a magic number and the version of the record format. Segments without
+ * a header were written in version 1, before records held an idempotency key; they are still read, and
+ * writing continues in a new segment. Each record is written as its length, a CRC32 of its payload and the payload (the request's fields,
+ * including its idempotency key so a request re-sent after a restart can be recognised by the RaaS API). The
+ * length is written last, so a record only becomes visible once it is complete, and a record torn by a crash
+ * of the machine is detected by its CRC. A checkpoint of the position up to which records have been
+ * processed is kept in a separate memory-mapped file, in two alternating slots so that one valid checkpoint
+ * always survives a torn write. Segments wholly before the checkpoint are deleted.
+ *
+ * Writes to a memory-mapped file survive the process exiting; {@link #force()} is needed for them to
+ * survive the machine stopping.
+ *
+ * All methods are synchronized on the journal.
+ */
+class PlantingJournal implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "outbox-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "outbox.checkpoint";
+    private static final int SEGMENT_MAGIC = 0xD161_7A1E;
+    private static final int FORMAT_VERSION = 2;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int HEADER_SIZE = 8;
+    private static final int NEXT_SEGMENT = -1;
+    private static final int CHECKPOINT_SLOT_SIZE = 24;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final Map<Long, Integer> versions = new HashMap<>();
+    private final MappedByteBuffer checkpointBuffer;
+    private final CRC32 crc = new CRC32();
+
+    private long checkpointCounter;
+    private Position checkpoint;
+    private Position read;
+    private long writeSegment;
+    private int writeOffset;
+    private boolean recovered;
+
+    PlantingJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    PlantingJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.checkpointBuffer = map(directory.resolve(CHECKPOINT_FILE), 2 * CHECKPOINT_SLOT_SIZE);
+        this.checkpoint = readCheckpoint();
+        recover();
+    }
+
+    /**
+     * A position in the journal: a segment and an offset within it.
+     */
+    static final class Position implements Comparable<Position> {
+        final long segment;
+        final int offset;
+
+        Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int bySegment = Long.compare(this.segment, other.segment);
+            return bySegment != 0 ? bySegment : Integer.compare(this.offset, other.offset);
+        }
+    }
+
+    /**
+     * A request read from the journal, with the position just after it.
+     */
+    static final class Record {
+        final TreePlantingRequest request;
+        final Position end;
+
+        Record(TreePlantingRequest request, Position end) {
+            this.request = request;
+            this.end = end;
+        }
+    }
+
+    synchronized void append(TreePlantingRequest request) throws IOException {
+        byte[] enterpriseId = utf8(request.getEnterpriseId());
+        byte[] projectId = utf8(request.getProjectId());
+        byte[] user = utf8(request.getUser());
+        byte[] idempotencyKey = request.getIdempotencyKey() != null ? utf8(request.getIdempotencyKey()) : new byte[0];
+        if (request.getTreeCount() == null) {
+            throw new IOException("Tree planting request is missing a required field.");
+        }
+        int length = 8 + enterpriseId.length + projectId.length + user.length + idempotencyKey.length + 4;
+        if (SEGMENT_HEADER_SIZE + HEADER_SIZE + length > this.segmentSize) {
+            throw new IOException("Tree planting request is too large for the outbox.");
+        }
+
+        MappedByteBuffer segment = this.segments.get(this.writeSegment);
+        if (this.writeOffset + HEADER_SIZE + length > this.segmentSize) {
+            if (this.writeOffset + 4 <= this.segmentSize) {
+                segment.putInt(this.writeOffset, NEXT_SEGMENT);
+            }
+            this.writeSegment++;
+            segment = openSegment(this.writeSegment);
+        }
+
+        int payload = this.writeOffset + HEADER_SIZE;
+        segment.position(payload);
+        putString(segment, enterpriseId);
+        putString(segment, projectId);
+        putString(segment, user);
+        putString(segment, idempotencyKey);
+        segment.putInt(request.getTreeCount());
+
+        segment.putInt(this.writeOffset + 4, crc(segment, payload, length));
+        segment.putInt(this.writeOffset, length);
+        this.writeOffset += HEADER_SIZE + length;
+    }
+
+    /**
+     * Reads the next records that have not been read yet.
+     *
+     * @param max the maximum number of records to read.
+     * @return the records, in the order they were appended; empty if there are none.
+     */
+    synchronized List<Record> read(int max) {
+        List<Record> records = new ArrayList<>();
+        while (records.size() < max) {
+            if (this.recovered && this.read.segment == this.writeSegment && this.read.offset >= this.writeOffset) {
+                break;
+            }
+            MappedByteBuffer segment = this.segments.get(this.read.segment);
+            int offset = this.read.offset;
+            int length = offset + HEADER_SIZE <= this.segmentSize ? segment.getInt(offset) : NEXT_SEGMENT;
+
+            if (length <= 0 || offset + HEADER_SIZE + length > this.segmentSize
+                    || segment.getInt(offset + 4) != crc(segment, offset + HEADER_SIZE, length)) {
+                // The end of the segment (or of what was written to it before a crash).
+                Long next = this.segments.higherKey(this.read.segment);
+                if (next == null || this.read.segment == this.writeSegment) {
+                    break;
+                }
+                this.read = start(next);
+                continue;
+            }
+
+            segment.position(offset + HEADER_SIZE);
+            String enterpriseId = getString(segment);
+            String projectId = getString(segment);
+            String user = getString(segment);
+            String idempotencyKey = this.versions.get(this.read.segment) >= 2 ? getString(segment) : "";
+            int treeCount = segment.getInt();
+
+            this.read = new Position(this.read.segment, offset + HEADER_SIZE + length);
+            records.add(new Record(new TreePlantingRequest(enterpriseId, projectId, user, treeCount,
+                    idempotencyKey.isEmpty() ? null : idempotencyKey), this.read));
+        }
+        return records;
+    }
+
+    /**
+     * @return whether records have been appended that have not been read yet.
+     */
+    synchronized boolean hasUnread() {
+        return this.read.segment != this.writeSegment || this.read.offset != this.writeOffset;
+    }
+
+    /**
+     * Records that all records before the position have been processed, so they are not read again after a
+     * restart, and deletes the segments that are no longer needed.
+     */
+    synchronized void checkpoint(Position position) throws IOException {
+        if (position.compareTo(this.checkpoint) <= 0) {
+            return;
+        }
+        this.checkpoint = position;
+
+        this.checkpointCounter++;
+        int slot = (int) (this.checkpointCounter % 2) * CHECKPOINT_SLOT_SIZE;
+        this.checkpointBuffer.putLong(slot, this.checkpointCounter);
+        this.checkpointBuffer.putLong(slot + 8, position.segment);
+        this.checkpointBuffer.putInt(slot + 16, position.offset);
+        this.checkpointBuffer.putInt(slot + 20, crc(this.checkpointBuffer, slot, 20));
+
+        compact();
+    }
+
+    /**
+     * @return the number of segment files in the journal.
+     */
+    synchronized int segmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Writes the journal and the checkpoint through to the storage device.
+     */
+    synchronized void force() {
+        for (MappedByteBuffer segment : this.segments.values()) {
+            segment.force();
+        }
+        this.checkpointBuffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+    }
+
+    private void compact() throws IOException {
+        while (this.segments.firstKey() < Math.min(this.checkpoint.segment, this.writeSegment)) {
+            long segment = this.segments.pollFirstEntry().getKey();
+            this.versions.remove(segment);
+            Files.deleteIfExists(segmentPath(segment));
+        }
+    }
+
+    private Position readCheckpoint() {
+        Position latest = new Position(0, 0);
+        for (int slot = 0; slot < 2 * CHECKPOINT_SLOT_SIZE; slot += CHECKPOINT_SLOT_SIZE) {
+            long counter = this.checkpointBuffer.getLong(slot);
+            if (counter > this.checkpointCounter
+                    && this.checkpointBuffer.getInt(slot + 20) == crc(this.checkpointBuffer, slot, 20)) {
+                this.checkpointCounter = counter;
+                latest = new Position(this.checkpointBuffer.getLong(slot + 8),
+                        this.checkpointBuffer.getInt(slot + 16));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Opens the segments left by a previous run, and finds where to continue reading and writing.
+     */
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long segment = Long.parseLong(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()), 16);
+                if (segment < this.checkpoint.segment) {
+                    Files.delete(file);
+                    continue;
+                }
+                MappedByteBuffer buffer = map(file, this.segmentSize);
+                int version = buffer.getInt(0) == SEGMENT_MAGIC ? buffer.getInt(4) : 1;
+                if (version > FORMAT_VERSION) {
+                    throw new IOException("Outbox segment " + name + " was written by a newer version of the SDK.");
+                }
+                this.segments.put(segment, buffer);
+                this.versions.put(segment, version);
+            }
+        }
+
+        if (this.segments.isEmpty()) {
+            openSegment(this.checkpoint.segment);
+        }
+        if (this.segments.firstKey() != this.checkpoint.segment) {
+            // The checkpointed segment is missing, so continue from the next one.
+            this.checkpoint = start(this.segments.firstKey());
+        } else if (this.checkpoint.offset < start(this.checkpoint.segment).offset) {
+            this.checkpoint = start(this.checkpoint.segment);
+        }
+
+        this.writeSegment = this.segments.lastKey();
+        if (this.versions.get(this.writeSegment) < FORMAT_VERSION) {
+            // Records of different versions are not mixed in a segment.
+            this.writeSegment++;
+            openSegment(this.writeSegment);
+        } else {
+            // Reading the last segment through to its end finds where writing continues.
+            this.read = this.checkpoint.segment == this.writeSegment ? this.checkpoint : start(this.writeSegment);
+            while (!read(1024).isEmpty()) {
+                // skip to the end
+            }
+            this.writeOffset = this.read.offset;
+        }
+        this.read = this.checkpoint;
+        this.recovered = true;
+    }
+
+    /**
+     * @return the position of the first record of a segment, just after its header (if it has one).
+     */
+    private Position start(long segment) {
+        return new Position(segment, this.versions.get(segment) >= 2 ? SEGMENT_HEADER_SIZE : 0);
+    }
+
+    /**
+     * Creates a segment in the current format, and continues writing at its start.
+     */
+    private MappedByteBuffer openSegment(long segment) throws IOException {
+        MappedByteBuffer buffer = map(segmentPath(segment), this.segmentSize);
+        buffer.putInt(0, SEGMENT_MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        this.segments.put(segment, buffer);
+        this.versions.put(segment, FORMAT_VERSION);
+        this.writeOffset = SEGMENT_HEADER_SIZE;
+        return buffer;
+    }
+
+    private Path segmentPath(long segment) {
+        return this.directory.resolve(String.format("%s%016x%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private int crc(MappedByteBuffer buffer, int offset, int length) {
+        this.crc.reset();
+        this.crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return (int) this.crc.getValue();
+    }
+
+    private static byte[] utf8(String value) throws IOException {
+        if (value == null) {
+            throw new IOException("Tree planting request is missing a required field.");
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Tree planting request field is too long for the outbox.");
+        }
+        return bytes;
+    }
+
+    private static void putString(MappedByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
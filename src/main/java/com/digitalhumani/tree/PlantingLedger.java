@@ -0,0 +1,210 @@
+package com.digitalhumani.tree;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * A local, in-memory ledger of the trees planted through a {@code RaaS} instance, so figures such as "trees
+ * planted today" per project or per user can be shown without calling the RaaS API.
+ *
+ * Every successful planting is counted per enterprise, project, user and day (in UTC), and the trees of
+ * requests still in flight are counted separately, per enterprise and project only: users are not bounded in
+ * number, and an in-flight counter is never dropped. Counts are kept in {@link LongAdder}s for each user, each
+ * project, each user across projects and the enterprise as a whole, so recording never blocks and every query
+ * reads at most one counter per day. Days older than the retention period are dropped.
+ *
+ * The ledger only sees plantings made through this process since it started; the RaaS API remains the
+ * record of all plantings.
+ */
+public final class PlantingLedger {
+
+    private final ConcurrentHashMap<Key, LongAdder> planted = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, LongAdder> inFlight = new ConcurrentHashMap<>();
+    private final int retentionDays;
+    private final Clock clock;
+    private volatile LocalDate prunedOn;
+
+    /**
+     * Creates a ledger that keeps the counts of the last 400 days.
+     */
+    public PlantingLedger() {
+        this(400);
+    }
+
+    /**
+     * @param retentionDays how many days of counts to keep, including today.
+     */
+    public PlantingLedger(int retentionDays) {
+        this(retentionDays, Clock.systemUTC());
+    }
+
+    PlantingLedger(int retentionDays, Clock clock) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("retentionDays must be at least 1");
+        }
+        this.retentionDays = retentionDays;
+        this.clock = clock;
+    }
+
+    /**
+     * The key of a counter. A null project or user counts all projects or users; a null day is used for the
+     * trees in flight.
+     */
+    private static final class Key {
+        private final String enterpriseId;
+        private final String projectId;
+        private final String user;
+        private final LocalDate day;
+
+        Key(String enterpriseId, String projectId, String user, LocalDate day) {
+            this.enterpriseId = enterpriseId;
+            this.projectId = projectId;
+            this.user = user;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(this.enterpriseId, other.enterpriseId)
+                    && Objects.equals(this.projectId, other.projectId) && Objects.equals(this.user, other.user)
+                    && Objects.equals(this.day, other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.enterpriseId, this.projectId, this.user, this.day);
+        }
+    }
+
+    /**
+     * @param enterpriseId the enterprise.
+     * @param projectId the project, or null for all projects.
+     * @param user the user, or null for all users.
+     * @param day the day (in UTC).
+     * @return the number of trees planted on the day.
+     */
+    public long getTreesPlanted(String enterpriseId, String projectId, String user, LocalDate day) {
+        LongAdder count = this.planted.get(new Key(enterpriseId, projectId, user, day));
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * @param enterpriseId the enterprise.
+     * @param projectId the project, or null for all projects.
+     * @param user the user, or null for all users.
+     * @param month the month (in UTC).
+     * @return the number of trees planted in the month.
+     */
+    public long getTreesPlanted(String enterpriseId, String projectId, String user, YearMonth month) {
+        long total = 0;
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            total += getTreesPlanted(enterpriseId, projectId, user, month.atDay(day));
+        }
+        return total;
+    }
+
+    /**
+     * @param enterpriseId the enterprise.
+     * @param projectId the project, or null for all projects.
+     * @param user the user, or null for all users.
+     * @return the number of trees planted today (in UTC).
+     */
+    public long getTreesPlantedToday(String enterpriseId, String projectId, String user) {
+        return getTreesPlanted(enterpriseId, projectId, user, today());
+    }
+
+    /**
+     * @param enterpriseId the enterprise.
+     * @param projectId the project, or null for all projects.
+     * @return the number of trees in planting requests that have been sent but not yet answered.
+     */
+    public long getTreesInFlight(String enterpriseId, String projectId) {
+        LongAdder count = this.inFlight.get(new Key(enterpriseId, projectId, null, null));
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * Counts the trees of a request that is being sent.
+     */
+    void started(TreePlantingRequest request) {
+        addInFlight(request, treeCount(request.getTreeCount()));
+    }
+
+    /**
+     * Moves the trees of a request out of flight, and counts them as planted if the request succeeded.
+     *
+     * @param result the result of the request, or null if it failed without one.
+     */
+    void completed(TreePlantingRequest request, TreesPlanted result) {
+        addInFlight(request, -treeCount(request.getTreeCount()));
+        if (result == null || !result.isSuccess()) {
+            return;
+        }
+
+        LocalDate day = result.getCreated() != null
+                ? result.getCreated().toInstant().atOffset(ZoneOffset.UTC).toLocalDate()
+                : today();
+        add(this.planted, orElse(result.getEnterpriseId(), request.getEnterpriseId()),
+                orElse(result.getProjectId(), request.getProjectId()), orElse(result.getUser(), request.getUser()),
+                day, treeCount(result.getTreeCount() != null ? result.getTreeCount() : request.getTreeCount()));
+        prune();
+    }
+
+    private void addInFlight(TreePlantingRequest request, long trees) {
+        counter(this.inFlight, new Key(request.getEnterpriseId(), request.getProjectId(), null, null)).add(trees);
+        counter(this.inFlight, new Key(request.getEnterpriseId(), null, null, null)).add(trees);
+    }
+
+    private static void add(ConcurrentHashMap<Key, LongAdder> counters, String enterpriseId, String projectId,
+            String user, LocalDate day, long trees) {
+        counter(counters, new Key(enterpriseId, projectId, user, day)).add(trees);
+        counter(counters, new Key(enterpriseId, projectId, null, day)).add(trees);
+        counter(counters, new Key(enterpriseId, null, user, day)).add(trees);
+        counter(counters, new Key(enterpriseId, null, null, day)).add(trees);
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<Key, LongAdder> counters, Key key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return counter;
+    }
+
+    /**
+     * Drops the days that have left the retention period, at most once a day.
+     */
+    private void prune() {
+        LocalDate today = today();
+        if (today.equals(this.prunedOn)) {
+            return;
+        }
+        this.prunedOn = today;
+        LocalDate oldest = today.minusDays(this.retentionDays - 1);
+        this.planted.keySet().removeIf(key -> key.day.isBefore(oldest));
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(this.clock.withZone(ZoneOffset.UTC));
+    }
+
+    private static long treeCount(Integer treeCount) {
+        return treeCount != null ? treeCount : 0;
+    }
+
+    private static String orElse(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,279 @@
+package com.digitalhumani.tree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * An outbox for tree planting requests: requests are appended to a durable {@link PlantingJournal} and
+ * returned from straight away, and are sent to the RaaS API in the background.
+ *
+ * The journal is drained with up to {@code maxInFlight} requests sent concurrently, starting the next request
+ * as soon as one is done. A request that fails with a connection error, a 5xx, 408 or 429 is retried (with
+ * capped exponential backoff) up to {@code maxAttempts} times. A request that is rejected with any other
+ * status, or that still fails after its last attempt, is moved to the dead letters: a {@value #DEAD_LETTERS}
+ * file in the directory with one line per request of the form
+ * {@code {"idempotencyKey":"...","request":{...}}}, so it can be inspected and sent again by hand. A request
+ * that timed out or failed with a 5xx may have been planted all the same, so it should be sent again with the
+ * same idempotency key, e.g. as a {@code new TreePlantingRequest(enterpriseId, projectId, user, treeCount,
+ * idempotencyKey)}. The checkpoint is moved past every request up to the first one not yet done, and pending
+ * requests are sent again after a restart. Delivery is therefore at least once: a request sent just before
+ * the process stopped may be sent again.
+ */
+class PlantingOutbox implements Closeable {
+
+    @FunctionalInterface
+    interface Sender {
+        CompletableFuture<HttpResponse<String>> send(TreePlantingRequest request) throws RaaSException;
+    }
+
+    @FunctionalInterface
+    interface Encoder {
+        byte[] toJsonBytes(TreePlantingRequest request) throws RaaSException;
+    }
+
+    static final String DEAD_LETTERS = "dead-letters.jsonl";
+
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final PlantingJournal journal;
+    private final Path deadLetters;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Sender sender;
+    private final Encoder encoder;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    /** The requests read from the journal and not yet checkpointed, in journal order. Guarded by itself. */
+    private final ArrayDeque<Pending> window = new ArrayDeque<>();
+    /** The requests in the window that are not done yet. Guarded by the window. */
+    private int inFlight;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong checkpointed = new AtomicLong();
+    private volatile boolean closed;
+
+    PlantingOutbox(Path directory, int maxInFlight, int maxAttempts, Sender sender, Encoder encoder,
+            Executor executor) throws IOException {
+        this.journal = new PlantingJournal(directory);
+        this.deadLetters = directory.resolve(DEAD_LETTERS);
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.sender = sender;
+        this.encoder = encoder;
+        this.executor = executor;
+
+        // Send whatever a previous run left pending.
+        wake();
+    }
+
+    /**
+     * Appends a request to the outbox.
+     *
+     * @return the accepted request (without a uuid, since it has not been sent yet), or a failed result if it
+     *         could not be appended.
+     */
+    TreesPlanted add(TreePlantingRequest request) {
+        try {
+            this.journal.append(request);
+        } catch (IOException | RuntimeException ex) {
+            RaaSException raasEx = new RaaSException("Unable to add tree planting request to the outbox.");
+            raasEx.initCause(ex);
+            return new TreesPlanted(raasEx);
+        }
+
+        wake();
+        return new TreesPlanted(null, request.getEnterpriseId(), request.getProjectId(), request.getUser(),
+                request.getTreeCount());
+    }
+
+    /**
+     * @return the number of requests moved to the dead letters because the RaaS API rejected them or they
+     *         failed on every attempt.
+     */
+    long getDropped() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return the number of requests the checkpoint has been moved past, i.e. that will not be sent again.
+     */
+    long getCheckpointed() {
+        return this.checkpointed.get();
+    }
+
+    /**
+     * Stops sending. Requests not yet sent stay in the journal and are sent when an outbox is next opened
+     * on the same directory.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.journal.close();
+    }
+
+    private void wake() {
+        if (!this.closed && this.draining.compareAndSet(false, true)) {
+            execute(this::drain, 0);
+        }
+    }
+
+    /**
+     * Starts sending requests from the journal until {@code maxInFlight} are in flight.
+     */
+    private void drain() {
+        // Reset first: a request appended from here on wakes another drain, one appended before is read now.
+        this.draining.set(false);
+        if (this.closed) {
+            return;
+        }
+
+        List<PlantingJournal.Record> records;
+        synchronized (this.window) {
+            records = this.journal.read(this.maxInFlight - this.inFlight);
+            for (PlantingJournal.Record record : records) {
+                this.window.add(new Pending(record));
+            }
+            this.inFlight += records.size();
+        }
+        for (PlantingJournal.Record record : records) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            send(record.request, 0, done);
+            done.thenRun(() -> finished(record));
+        }
+    }
+
+    /**
+     * Moves the checkpoint past the requests that are done, up to the first one that is not, so one request
+     * backing off does not hold up the rest of the journal, and starts the next requests.
+     */
+    private void finished(PlantingJournal.Record record) {
+        PlantingJournal.Position checkpoint = null;
+        int completed = 0;
+        synchronized (this.window) {
+            this.inFlight--;
+            for (Pending pending : this.window) {
+                if (pending.record == record) {
+                    pending.done = true;
+                    break;
+                }
+            }
+            while (!this.window.isEmpty() && this.window.peek().done) {
+                checkpoint = this.window.poll().record.end;
+                completed++;
+            }
+        }
+        if (checkpoint != null) {
+            try {
+                // Positions only move forward, so a checkpoint overtaken by a later one is ignored.
+                this.journal.checkpoint(checkpoint);
+                this.checkpointed.addAndGet(completed);
+            } catch (IOException ex) {
+                // The requests will be sent again after a restart.
+            }
+        }
+        wake();
+    }
+
+    private void send(TreePlantingRequest request, int attempts, CompletableFuture<Void> done) {
+        if (this.closed) {
+            return;
+        }
+
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = this.sender.send(request);
+        } catch (RaaSException | RuntimeException ex) {
+            deadLetter(request);
+            done.complete(null);
+            return;
+        }
+
+        response.whenComplete((result, ex) -> {
+            boolean failed = ex != null || isTransient(result.statusCode());
+            if (!failed || attempts + 1 >= this.maxAttempts) {
+                if (failed || result.statusCode() / 100 != 2) {
+                    deadLetter(request);
+                }
+                done.complete(null);
+                return;
+            }
+
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempts, 20));
+            execute(() -> send(request, attempts + 1, done), backoff);
+        });
+    }
+
+    /**
+     * Appends a request to the dead letters, with its idempotency key. If it cannot be written it is only
+     * counted, so the rest of the journal can still be delivered.
+     */
+    private synchronized void deadLetter(TreePlantingRequest request) {
+        this.dropped.incrementAndGet();
+        try {
+            // A JSON codec only writes line breaks as whitespace, so they can be replaced to keep one per line.
+            String json = new String(this.encoder.toJsonBytes(request), StandardCharsets.UTF_8)
+                    .replace('\n', ' ').replace('\r', ' ');
+            String line = "{\"idempotencyKey\":" + quote(request.getIdempotencyKey()) + ",\"request\":" + json
+                    + "}\n";
+            Files.write(this.deadLetters, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException | RaaSException | RuntimeException ex) {
+            // Counted as dropped all the same.
+        }
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static boolean isTransient(int status) {
+        return status >= 500 || status == 408 || status == 429;
+    }
+
+    private void execute(Runnable task, long delayMillis) {
+        if (this.executor != null) {
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, this.executor).execute(task);
+        } else {
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(task);
+        }
+    }
+
+    private static final class Pending {
+        private final PlantingJournal.Record record;
+        private boolean done;
+
+        Pending(PlantingJournal.Record record) {
+            this.record = record;
+        }
+    }
+}
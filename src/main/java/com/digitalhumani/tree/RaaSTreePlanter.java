@@ -1,80 +1,367 @@
 package com.digitalhumani.tree;
 
-import java.net.http.HttpClient;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse.BodyHandlers;
-import java.util.ArrayList;
-import java.util.List;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
+import com.digitalhumani.concurrent.BoundedFanOut;
+import com.digitalhumani.concurrent.BoundedFlow;
+import com.digitalhumani.concurrent.SingleFlight;
+import com.digitalhumani.config.RaaSOptions;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.Deadline;
+import com.digitalhumani.http.RaaSTransport;
 import com.digitalhumani.interfaces.HTTPHelper;
+import com.digitalhumani.metrics.interfaces.RaaSMetricsListener;
+import com.digitalhumani.tree.interfaces.TreeLookupCallback;
 import com.digitalhumani.tree.interfaces.TreePlanter;
+import com.digitalhumani.tree.models.BatchDeleteResult;
+import com.digitalhumani.tree.models.BatchLookupResult;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.DeleteOutcome;
 import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
 
 public class RaaSTreePlanter implements TreePlanter {
 
+    private static final String ENDPOINT = "/tree";
+
     private HTTPHelper<TreePlantingRequest, TreesPlanted> httpHelper;
-    private HttpClient httpClient;
+    private RaaSTransport transport;
+    private PlantingCoalescer coalescer;
+    private int maxConcurrentRequests;
+    private TreesPlantedCache cache;
+    private SingleFlight<String, TreesPlanted> lookups;
+    private PlantingOutbox outbox;
+    private IdempotencyKeys idempotencyKeys;
+    private boolean generateIdempotencyKeys;
+    private Function<HttpResponse<String>, TreesPlanted> responseParser;
+    private PlantingLedger ledger;
 
-    RaaSTreePlanter(HTTPHelper<TreePlantingRequest, TreesPlanted> httpHelper) {
+    RaaSTreePlanter(HTTPHelper<TreePlantingRequest, TreesPlanted> httpHelper, RaaSTransport transport,
+            RaaSOptions options) {
         this.httpHelper = httpHelper;
-        this.httpClient = HttpClient.newHttpClient();
+        this.transport = transport;
+        this.maxConcurrentRequests = options.getMaxConcurrentRequests();
+        this.generateIdempotencyKeys = options.isGenerateIdempotencyKeys();
+        this.responseParser = httpHelper.parseResponse();
+        this.ledger = options.getLedger();
+
+        RaaSMetricsListener metrics = options.getMetricsListener();
+        if (metrics != null) {
+            Function<HttpResponse<String>, TreesPlanted> parser = this.responseParser;
+            this.responseParser = response -> {
+                TreesPlanted result = parser.apply(response);
+                // The helper reports a body it could not parse with the codec's IOException as the cause.
+                if (result.getException() != null && result.getException().getCause() instanceof IOException) {
+                    metrics.parseFailed(ENDPOINT);
+                }
+                return result;
+            };
+        }
+
+        if (options.getCoalescingWindow() != null) {
+            this.coalescer = new PlantingCoalescer(options.getCoalescingWindow(), options.getCoalescingMaxTrees(),
+                    this::plant);
+        }
+        if (options.getIdempotencyWindow() != null) {
+            this.idempotencyKeys = new IdempotencyKeys(options.getIdempotencyWindow(),
+                    options.getIdempotencyMaxKeys());
+        }
+        if (options.isSingleFlight()) {
+            this.lookups = new SingleFlight<>();
+        }
+        if (options.getTreeCacheMaxEntries() > 0) {
+            this.cache = new TreesPlantedCache(options.getTreeCacheMaxEntries(), options.getTreeCacheTtl());
+        }
+        if (options.getOutboxDirectory() != null) {
+            try {
+                PlantingOutbox.Sender sender = this.ledger != null ? this::sendToLedger : this::sendRequest;
+                this.outbox = new PlantingOutbox(options.getOutboxDirectory(), this.maxConcurrentRequests,
+                        options.getOutboxMaxAttempts(), sender, this.httpHelper::toJsonBytes, options.getExecutor());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to open the outbox in " + options.getOutboxDirectory(), ex);
+            }
+        }
     }
 
     public RaaSTreePlanter(String url, String apiKey) {
-        this.httpHelper = new TreePlanterHTTPHelper(url, apiKey);
-        this.httpClient = HttpClient.newHttpClient();
+        this(url, apiKey, new RaaSTransport(), new RaaSOptions());
+    }
+
+    public RaaSTreePlanter(String url, String apiKey, RaaSTransport transport, RaaSOptions options) {
+        this(new TreePlanterHTTPHelper(url, apiKey, options.getJsonCodec(), options.getRequestTimeout(ENDPOINT)),
+                transport, options);
     }
 
     @Override
     public CompletableFuture<TreesPlanted> plantATree(String enterpriseId, String projectId, String user)
             throws RaaSException {
 
-        TreePlantingRequest treeRequest = new TreePlantingRequest(enterpriseId, projectId, user, 1);
+        if (this.coalescer != null && this.outbox == null) {
+            return this.coalescer.plantATree(enterpriseId, projectId, user);
+        }
 
-        String requestBody = this.httpHelper.toJson(treeRequest);
-
-        HttpRequest request = this.httpHelper.buildPostRequest(requestBody);
-
-        return this.httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(this.httpHelper.parseResponse());
+        return plant(new TreePlantingRequest(enterpriseId, projectId, user, 1));
     }
 
     @Override
     public CompletableFuture<TreesPlanted> plantSomeTrees(String enterpriseId, String projectId, String user,
             Integer treeCount) throws RaaSException {
 
-        TreePlantingRequest treeRequest = new TreePlantingRequest(enterpriseId, projectId, user, treeCount);
+        return plant(new TreePlantingRequest(enterpriseId, projectId, user, treeCount));
+    }
 
-        String requestBody = this.httpHelper.toJson(treeRequest);
+    @Override
+    public CompletableFuture<TreesPlanted> plantTrees(TreePlantingRequest request) throws RaaSException {
 
-        HttpRequest request = this.httpHelper.buildPostRequest(requestBody);
+        return plant(request);
+    }
+
+    @Override
+    public CompletableFuture<BulkPlantingResult> plantTreesBulk(Collection<TreePlantingRequest> requests) {
+
+        TreesPlanted[] results = new TreesPlanted[requests.size()];
 
-        return this.httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(this.httpHelper.parseResponse());
+        // Later requests are started from the threads completing earlier ones, so carry the caller's deadline.
+        Deadline deadline = Deadline.current();
+        BoundedFanOut.Call<TreePlantingRequest, TreesPlanted> plant = deadline == null ? this::plant
+                : request -> deadline.resume(() -> plant(request));
 
+        return BoundedFanOut.run(requests.iterator(), this.maxConcurrentRequests, plant,
+                (index, request, result, error) -> {
+                    results[index] = error == null ? result : new TreesPlanted(RaaSException.from(error));
+                }).thenApply(done -> new BulkPlantingResult(Arrays.asList(results)));
+    }
+
+    @Override
+    public Flow.Publisher<TreesPlanted> plantTreesStream(Flow.Publisher<TreePlantingRequest> requests) {
+        return new BoundedFlow<>(requests, this.maxConcurrentRequests, request -> {
+            CompletableFuture<TreesPlanted> future;
+            try {
+                future = plant(request);
+            } catch (RaaSException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            return future.exceptionally(error -> new TreesPlanted(RaaSException.from(error)));
+        });
     }
 
     @Override
     public CompletableFuture<TreesPlanted> getATreePlanted(String uuid) throws RaaSException {
 
-        List<String> params = new ArrayList<>();
-        params.add(uuid);
+        if (this.cache != null) {
+            TreesPlanted cached = this.cache.get(uuid);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
 
-        HttpRequest request = this.httpHelper.buildGetRequest(params);
+        if (this.lookups != null) {
+            // The lookup is shared with concurrent callers, so it runs without this caller's deadline, which
+            // only bounds how long this caller waits for it.
+            Deadline deadline = Deadline.current();
+            CompletableFuture<TreesPlanted> shared = Deadline.suspend(
+                    () -> this.lookups.execute(uuid, () -> fetchATreePlanted(uuid)));
+            return deadline != null ? deadline.bound(shared) : shared;
+        }
+        return fetchATreePlanted(uuid);
+    }
 
-        return this.httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(this.httpHelper.parseResponse());
+    private CompletableFuture<TreesPlanted> fetchATreePlanted(String uuid) {
+        HttpRequest request = this.httpHelper.buildGetRequest(Collections.singletonList(uuid));
+
+        return cached(this.transport.send(request).thenApply(this.responseParser));
+    }
+
+    @Override
+    public CompletableFuture<BatchLookupResult> getTreesPlanted(Collection<String> uuids,
+            TreeLookupCallback callback) {
+
+        LongAdder found = new LongAdder();
+        LongAdder notFound = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        // Later lookups are started from the threads completing earlier ones, so carry the caller's deadline.
+        Deadline deadline = Deadline.current();
+        BoundedFanOut.Call<String, TreesPlanted> lookUp = deadline == null ? this::lookUp
+                : uuid -> deadline.resume(() -> lookUp(uuid));
+
+        return BoundedFanOut.run(uuids.iterator(), this.maxConcurrentRequests, lookUp,
+                (index, uuid, result, error) -> {
+                    if (error != null) {
+                        failed.increment();
+                        callback.failed(uuid, RaaSException.from(error));
+                    } else if (result == null) {
+                        notFound.increment();
+                        callback.notFound(uuid);
+                    } else if (!result.isSuccess()) {
+                        failed.increment();
+                        callback.failed(uuid, result.getException());
+                    } else {
+                        found.increment();
+                        callback.found(uuid, result);
+                    }
+                }).thenApply(done -> new BatchLookupResult(found.sum(), notFound.sum(), failed.sum()));
+    }
+
+    /**
+     * Gets a tree planted like {@link #getATreePlanted(String)}, but without sharing the request with concurrent
+     * lookups (a batch rarely repeats a uuid).
+     *
+     * @return the tree planting request, or null if the RaaS API has none with the uuid.
+     */
+    private CompletableFuture<TreesPlanted> lookUp(String uuid) {
+        if (this.cache != null) {
+            TreesPlanted cached = this.cache.get(uuid);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        HttpRequest request = this.httpHelper.buildGetRequest(Collections.singletonList(uuid));
+
+        return cached(this.transport.send(request)
+                .thenApply(response -> response.statusCode() == 404 ? null : this.responseParser.apply(response)));
     }
 
     @Override
     public CompletableFuture<Boolean> deleteATreePlanted(String uuid) {
-        
-        List<String> params = new ArrayList<>();
-        params.add(uuid);
 
-        HttpRequest request = this.httpHelper.buildDeleteRequest(params);
+        return delete(uuid).thenApply(this.httpHelper.wasSuccess());
+    }
+
+    @Override
+    public CompletableFuture<BatchDeleteResult> deleteTreesPlanted(Collection<String> uuids) {
+
+        DeleteOutcome[] outcomes = new DeleteOutcome[uuids.size()];
+
+        // Later requests are started from the threads completing earlier ones, so carry the caller's deadline.
+        Deadline deadline = Deadline.current();
+        BoundedFanOut.Call<String, HttpResponse<String>> delete = deadline == null ? this::delete
+                : uuid -> deadline.resume(() -> delete(uuid));
+
+        return BoundedFanOut.run(uuids.iterator(), this.maxConcurrentRequests, delete,
+                (index, uuid, response, error) -> {
+                    outcomes[index] = error == null ? new DeleteOutcome(uuid, response.statusCode())
+                            : new DeleteOutcome(uuid, RaaSException.from(error));
+                }).thenApply(done -> new BatchDeleteResult(Arrays.asList(outcomes)));
+    }
+
+    /**
+     * Stops the outbox, if enabled. Requests not yet sent stay in its journal.
+     */
+    @Override
+    public void close() {
+        if (this.outbox != null) {
+            this.outbox.close();
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> delete(String uuid) {
+
+        HttpRequest request = this.httpHelper.buildDeleteRequest(Collections.singletonList(uuid));
+
+        if (this.cache == null) {
+            return this.transport.send(request);
+        }
+
+        // Invalidate both now and once deleted, in case a concurrent lookup re-fills the cache meanwhile.
+        this.cache.invalidate(uuid);
+        return this.transport.send(request).whenComplete((response, ex) -> {
+            this.cache.invalidate(uuid);
+        });
+    }
+
+    /**
+     * Plants trees once per idempotency key (within the idempotency window), via the outbox if enabled.
+     */
+    private CompletableFuture<TreesPlanted> plant(TreePlantingRequest treeRequest) throws RaaSException {
+
+        String idempotencyKey = treeRequest.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            if (this.generateIdempotencyKeys) {
+                return deliver(new TreePlantingRequest(treeRequest.getEnterpriseId(), treeRequest.getProjectId(),
+                        treeRequest.getUser(), treeRequest.getTreeCount(), newIdempotencyKey()));
+            }
+            return deliver(treeRequest);
+        }
+
+        if (this.idempotencyKeys != null) {
+            return this.idempotencyKeys.execute(idempotencyKey, () -> deliver(treeRequest));
+        }
+        return deliver(treeRequest);
+    }
+
+    private CompletableFuture<TreesPlanted> deliver(TreePlantingRequest treeRequest) throws RaaSException {
+
+        if (this.outbox != null) {
+            return CompletableFuture.completedFuture(this.outbox.add(treeRequest));
+        }
+        return send(treeRequest);
+    }
+
+    private CompletableFuture<TreesPlanted> send(TreePlantingRequest treeRequest) throws RaaSException {
+
+        CompletableFuture<TreesPlanted> response = sendRequest(treeRequest).thenApply(this.responseParser);
+        if (this.ledger != null) {
+            this.ledger.started(treeRequest);
+            response = response.whenComplete((treesPlanted, ex) -> this.ledger.completed(treeRequest, treesPlanted));
+        }
+        return cached(response);
+    }
+
+    /**
+     * Sends a request from the outbox, recording it in the ledger.
+     */
+    private CompletableFuture<HttpResponse<String>> sendToLedger(TreePlantingRequest treeRequest)
+            throws RaaSException {
+
+        CompletableFuture<HttpResponse<String>> response = sendRequest(treeRequest);
+        this.ledger.started(treeRequest);
+        return response.whenComplete((httpResponse, ex) -> this.ledger.completed(treeRequest,
+                httpResponse != null && this.httpHelper.wasSuccess().apply(httpResponse)
+                        ? this.responseParser.apply(httpResponse)
+                        : null));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendRequest(TreePlantingRequest treeRequest)
+            throws RaaSException {
+
+        byte[] requestBody = this.httpHelper.toJsonBytes(treeRequest);
+
+        HttpRequest request = this.httpHelper.buildPostRequest(requestBody, treeRequest.getIdempotencyKey());
+
+        return this.transport.send(request);
+    }
+
+    private CompletableFuture<TreesPlanted> cached(CompletableFuture<TreesPlanted> response) {
+        if (this.cache == null) {
+            return response;
+        }
+        return response.whenComplete((treesPlanted, ex) -> this.cache.put(treesPlanted));
+    }
+
 
-        return this.httpClient.sendAsync(request, BodyHandlers.ofString()).thenApply(this.httpHelper.wasSuccess());
+    /**
+     * @return a random (version 4) UUID. Unlike {@link UUID#randomUUID()} this does not use a shared
+     *         {@code SecureRandom}, which would contend under load; the key need only be unique.
+     */
+    private static String newIdempotencyKey() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits).toString();
     }
 
-}
\ No newline at end of file
+}
@@ -1,130 +1,160 @@
 package com.digitalhumani.tree;
 
-import java.net.URI;
+import java.io.IOException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.RequestTemplate;
 import com.digitalhumani.interfaces.HTTPHelper;
+import com.digitalhumani.jfr.ParseEvent;
+import com.digitalhumani.jfr.RequestBuildEvent;
+import com.digitalhumani.jfr.SerializeEvent;
+import com.digitalhumani.json.RaaSJsonCodec;
+import com.digitalhumani.json.interfaces.JsonCodec;
 import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 class TreePlanterHTTPHelper implements HTTPHelper<TreePlantingRequest, TreesPlanted> {
 
-    private ObjectMapper objectMapper = new ObjectMapper();
-    private String url = "";
-    private String apiKey = "";
+    private JsonCodec jsonCodec;
+    private RequestTemplate requestTemplate;
+    private Function<HttpResponse<String>, TreesPlanted> responseParser = this::parse;
+    private Function<HttpResponse<String>, Boolean> successChecker = response -> RequestTemplate
+            .isSuccess(response.statusCode());
 
     // constants
     private static final String RELATIVE_URL = "/tree";
-    private static final String USER_AGENT = "Digital Humani Java SDK";
-    private static final String CONTENT_TYPE = "application/json";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     public TreePlanterHTTPHelper(String url, String apiKey) {
-        this.url = url;
-        this.apiKey = apiKey;
+        this(url, apiKey, new RaaSJsonCodec());
+    }
+
+    public TreePlanterHTTPHelper(String url, String apiKey, JsonCodec jsonCodec) {
+        this(url, apiKey, jsonCodec, null);
+    }
+
+    public TreePlanterHTTPHelper(String url, String apiKey, JsonCodec jsonCodec, Duration requestTimeout) {
+        this.jsonCodec = jsonCodec;
+        this.requestTemplate = new RequestTemplate(url, RELATIVE_URL, apiKey, requestTimeout);
     }
 
     @Override
     public String toJson(TreePlantingRequest request) throws RaaSException {
-        String requestBody = "";
+        return new String(toJsonBytes(request), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] toJsonBytes(TreePlantingRequest request) throws RaaSException {
+        SerializeEvent event = new SerializeEvent();
+        event.begin();
+        byte[] requestBody;
         try {
-            requestBody = this.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(request);
-        } catch (JsonProcessingException ex) {
+            requestBody = this.jsonCodec.write(request);
+        } catch (IOException ex) {
             RaaSException raaSEx = new RaaSException(
                     "Unable to build JSON body for tree planting request from supplied parameters");
             raaSEx.initCause(ex);
             throw raaSEx;
         }
+        event.commit(RELATIVE_URL, requestBody.length);
         return requestBody;
     }
 
     @Override
     public HttpRequest buildPostRequest(String requestBody) {
-        return HttpRequest.newBuilder(URI.create(this.url + RELATIVE_URL)).setHeader("Content-Type", CONTENT_TYPE)
-                .setHeader("X-API-KEY", this.apiKey).setHeader("User-Agent", USER_AGENT)
-                .POST(BodyPublishers.ofString(requestBody)).build();
+        return buildPostRequest(requestBody.getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
-    public Function<HttpResponse<String>, TreesPlanted> parseResponse() {
-        return (HttpResponse<String> response) -> {
-            if (response.statusCode() == 404) {
-                RaaSException raasEx = new RaaSException("Could not find tree planted.");
-                return new TreesPlanted(raasEx);
-            }
-
-            if (response.statusCode() == 401) {
-                RaaSException raasEx = new RaaSException("Not authorised - check your API key.");
-                return new TreesPlanted(raasEx);
-            }
-            
-            try {
-                return this.objectMapper.readValue(response.body(), TreesPlanted.class);
-            } catch (JsonProcessingException e) {
-                RaaSException raasEx = new RaaSException("Failed to parse response from RaaS API.");
-                raasEx.initCause(e);
-                return new TreesPlanted(raasEx);
-            }
-        };
+    public HttpRequest buildPostRequest(byte[] requestBody) {
+        return buildPostRequest(requestBody, null);
     }
 
     @Override
-    public HttpRequest buildGetRequest(HashMap<String, String> queryParams) {
+    public HttpRequest buildPostRequest(byte[] requestBody, String idempotencyKey) {
+        RequestBuildEvent event = new RequestBuildEvent();
+        event.begin();
+        HttpRequest.Builder builder = this.requestTemplate.newRequest(this.requestTemplate.baseUri())
+                .POST(BodyPublishers.ofByteArray(requestBody));
+        if (idempotencyKey != null) {
+            builder.setHeader(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        HttpRequest request = builder.build();
+        event.commit(RELATIVE_URL, "POST");
+        return request;
+    }
+
+    @Override
+    public Function<HttpResponse<String>, TreesPlanted> parseResponse() {
+        return this.responseParser;
+    }
+
+    private TreesPlanted parse(HttpResponse<String> response) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        TreesPlanted result = read(response);
+        event.commit(RELATIVE_URL, response);
+        return result;
+    }
 
-        StringBuilder queryStringBuilder = new StringBuilder();
-        queryParams.forEach((k, v) -> queryStringBuilder.append(String.format("&%s=%s", k, v)));
-        String queryString = queryStringBuilder.toString().substring(1); // remove first &
+    private TreesPlanted read(HttpResponse<String> response) {
+        if (response.statusCode() == 404) {
+            RaaSException raasEx = new RaaSException("Could not find tree planted.");
+            return new TreesPlanted(raasEx);
+        }
 
-        return HttpRequest
-                .newBuilder(URI.create(String.format("%s%s?%s", this.url, RELATIVE_URL, queryString)))
-                .setHeader("Content-Type", CONTENT_TYPE).setHeader("X-API-KEY", this.apiKey)
-                .setHeader("User-Agent", USER_AGENT).GET().build();
+        if (response.statusCode() == 401) {
+            RaaSException raasEx = new RaaSException("Not authorised - check your API key.");
+            return new TreesPlanted(raasEx);
+        }
+
+        try {
+            return this.jsonCodec.read(response.body(), TreesPlanted.class);
+        } catch (IOException e) {
+            RaaSException raasEx = new RaaSException("Failed to parse response from RaaS API.");
+            raasEx.initCause(e);
+            return new TreesPlanted(raasEx);
+        }
+    }
 
+    @Override
+    public HttpRequest buildGetRequest(HashMap<String, String> queryParams) {
+        RequestBuildEvent event = new RequestBuildEvent();
+        event.begin();
+        HttpRequest request = this.requestTemplate.newRequest(this.requestTemplate.uri(queryParams)).GET().build();
+        event.commit(RELATIVE_URL, "GET");
+        return request;
     }
 
     @Override
     public HttpRequest buildGetRequest(List<String> params) {
-        
-        StringBuilder paramBuilder = new StringBuilder();
-        params.forEach(item -> paramBuilder.append(String.format("/%s", item)));
-        
-        return HttpRequest
-                .newBuilder(URI.create(String.format("%s%s%s", this.url, RELATIVE_URL, paramBuilder.toString())))
-                .setHeader("Content-Type", CONTENT_TYPE).setHeader("X-API-KEY", this.apiKey)
-                .setHeader("User-Agent", USER_AGENT).GET().build();
-
+        RequestBuildEvent event = new RequestBuildEvent();
+        event.begin();
+        HttpRequest request = this.requestTemplate.newRequest(this.requestTemplate.uri(params)).GET().build();
+        event.commit(RELATIVE_URL, "GET");
+        return request;
     }
 
     @Override
     public HttpRequest buildDeleteRequest(List<String> params) {
-
-        StringBuilder paramBuilder = new StringBuilder();
-        params.forEach(item -> paramBuilder.append(String.format("/%s", item)));
-    
-        return HttpRequest
-                .newBuilder(URI.create(String.format("%s%s%s", this.url, RELATIVE_URL, paramBuilder.toString())))
-                .setHeader("Content-Type", CONTENT_TYPE).setHeader("X-API-KEY", this.apiKey)
-                .setHeader("User-Agent", USER_AGENT).DELETE().build();
-
+        RequestBuildEvent event = new RequestBuildEvent();
+        event.begin();
+        HttpRequest request = this.requestTemplate.newRequest(this.requestTemplate.uri(params)).DELETE().build();
+        event.commit(RELATIVE_URL, "DELETE");
+        return request;
     }
 
     @Override
     public Function<HttpResponse<String>, Boolean> wasSuccess() {
-        return (HttpResponse<String> response) -> {
-            if (IntStream.range(200, 299).filter(item -> item == response.statusCode()).findAny().isEmpty()) {
-                return false;
-            } else {
-                return true;
-            }
-        };
+        return this.successChecker;
     }
 
 }
@@ -0,0 +1,152 @@
+package com.digitalhumani.tree;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * A bounded cache of tree planting requests, evicting the least recently used entry when full and
+ * expiring entries after a fixed time to live.
+ *
+ * Entries are keyed by the two halves of the request's uuid rather than by the uuid String, so a key
+ * costs a single small object.
+ */
+class TreesPlantedCache {
+
+    private final Map<Key, Entry> entries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    TreesPlantedCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    TreesPlantedCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TreesPlantedCache.Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached tree planting request, or null if it is not cached or has expired.
+     */
+    TreesPlanted get(String uuid) {
+        Key key = Key.of(uuid);
+        if (key == null) {
+            return null;
+        }
+
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (this.nanoClock.getAsLong() - entry.expiresAt >= 0) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry.treesPlanted;
+        }
+    }
+
+    /**
+     * Caches a successful tree planting request. Failed results, and results without a valid uuid, are
+     * ignored.
+     */
+    void put(TreesPlanted treesPlanted) {
+        if (treesPlanted == null || !treesPlanted.isSuccess()) {
+            return;
+        }
+        Key key = Key.of(treesPlanted.getUUId());
+        if (key == null) {
+            return;
+        }
+
+        Entry entry = new Entry(treesPlanted, this.nanoClock.getAsLong() + this.ttlNanos);
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+    void invalidate(String uuid) {
+        Key key = Key.of(uuid);
+        if (key == null) {
+            return;
+        }
+
+        synchronized (this.entries) {
+            this.entries.remove(key);
+        }
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private static final class Entry {
+        private final TreesPlanted treesPlanted;
+        private final long expiresAt;
+
+        Entry(TreesPlanted treesPlanted, long expiresAt) {
+            this.treesPlanted = treesPlanted;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Key {
+        private final long mostSignificantBits;
+        private final long leastSignificantBits;
+
+        private Key(long mostSignificantBits, long leastSignificantBits) {
+            this.mostSignificantBits = mostSignificantBits;
+            this.leastSignificantBits = leastSignificantBits;
+        }
+
+        /**
+         * @return the key for the uuid, or null if it is not a valid uuid (and so cannot be cached).
+         */
+        static Key of(String uuid) {
+            if (uuid == null || uuid.length() != 36) {
+                return null;
+            }
+            try {
+                UUID parsed = UUID.fromString(uuid);
+                return new Key(parsed.getMostSignificantBits(), parsed.getLeastSignificantBits());
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.mostSignificantBits == other.mostSignificantBits
+                    && this.leastSignificantBits == other.leastSignificantBits;
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = this.mostSignificantBits ^ this.leastSignificantBits;
+            return (int) (hash >> 32) ^ (int) hash;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.digitalhumani.tree.interfaces;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+/**
+ * Receives the outcome of each lookup of a batch, as it completes. Exactly one method is called per uuid,
+ * possibly concurrently from several threads. If a method throws, no further lookups are started and the
+ * batch fails with the exception.
+ */
+public interface TreeLookupCallback {
+
+    /**
+     * @param uuid the uuid looked up.
+     * @param treesPlanted the tree planting request with that uuid.
+     */
+    void found(String uuid, TreesPlanted treesPlanted);
+
+    /**
+     * @param uuid a uuid the RaaS API has no tree planting request for.
+     */
+    void notFound(String uuid);
+
+    /**
+     * @param uuid a uuid that could not be looked up.
+     * @param exception the reason.
+     */
+    void failed(String uuid, RaaSException exception);
+}
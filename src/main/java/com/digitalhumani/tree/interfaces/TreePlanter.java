@@ -1,13 +1,121 @@
 package com.digitalhumani.tree.interfaces;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
 
+import com.digitalhumani.concurrent.BoundedFanOut;
+import com.digitalhumani.concurrent.BoundedFlow;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.http.Deadline;
+import com.digitalhumani.tree.models.BatchDeleteResult;
+import com.digitalhumani.tree.models.BatchLookupResult;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.DeleteOutcome;
+import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
 
-public interface TreePlanter {
+/**
+ * Plants, looks up and deletes trees.
+ *
+ * Only the single-item methods must be implemented. The others have defaults that fall back to them, one
+ * request at a time, so implementations written before those methods existed keep working.
+ */
+public interface TreePlanter extends AutoCloseable {
     public CompletableFuture<TreesPlanted> plantATree(String enterpriseId, String projectId, String user) throws RaaSException;
     public CompletableFuture<TreesPlanted> plantSomeTrees(String enterpriseId, String projectId, String user, Integer treeCount) throws RaaSException;
     public CompletableFuture<TreesPlanted> getATreePlanted(String uuid) throws RaaSException;
     public CompletableFuture<Boolean> deleteATreePlanted(String uuid) throws RaaSException;
+
+    /**
+     * Plants the trees of a request. By default with {@link #plantSomeTrees}, which does not send the
+     * request's idempotency key.
+     */
+    public default CompletableFuture<TreesPlanted> plantTrees(TreePlantingRequest request) throws RaaSException {
+        return plantSomeTrees(request.getEnterpriseId(), request.getProjectId(), request.getUser(),
+                request.getTreeCount());
+    }
+
+    /**
+     * Plants the trees of each request. By default with {@link #plantTrees}, one request at a time.
+     */
+    public default CompletableFuture<BulkPlantingResult> plantTreesBulk(Collection<TreePlantingRequest> requests) {
+        TreesPlanted[] results = new TreesPlanted[requests.size()];
+        return BoundedFanOut.run(requests.iterator(), 1, withCurrentDeadline(this::plantTrees),
+                (index, request, result, error) -> {
+                    results[index] = error == null ? result : new TreesPlanted(RaaSException.from(error));
+                }).thenApply(done -> new BulkPlantingResult(Arrays.asList(results)));
+    }
+
+    /**
+     * Plants the trees of each request published. By default with {@link #plantTrees}, one request at a time.
+     */
+    public default Flow.Publisher<TreesPlanted> plantTreesStream(Flow.Publisher<TreePlantingRequest> requests) {
+        return new BoundedFlow<>(requests, 1, request -> {
+            CompletableFuture<TreesPlanted> future;
+            try {
+                future = plantTrees(request);
+            } catch (RaaSException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            return future.exceptionally(error -> new TreesPlanted(RaaSException.from(error)));
+        });
+    }
+
+    /**
+     * Looks up each tree planting request. By default with {@link #getATreePlanted}, one request at a time,
+     * reporting a request that is not found as failed, since a single lookup does not tell the two apart.
+     */
+    public default CompletableFuture<BatchLookupResult> getTreesPlanted(Collection<String> uuids,
+            TreeLookupCallback callback) {
+        LongAdder found = new LongAdder();
+        LongAdder failed = new LongAdder();
+        return BoundedFanOut.run(uuids.iterator(), 1, withCurrentDeadline(this::getATreePlanted),
+                (index, uuid, result, error) -> {
+                    if (error == null && result.isSuccess()) {
+                        found.increment();
+                        callback.found(uuid, result);
+                    } else {
+                        failed.increment();
+                        callback.failed(uuid, error != null ? RaaSException.from(error) : result.getException());
+                    }
+                }).thenApply(done -> new BatchLookupResult(found.sum(), 0, failed.sum()));
+    }
+
+    /**
+     * Deletes each tree planting request. By default with {@link #deleteATreePlanted}, one request at a time,
+     * reporting a deleted request with status 200 and any other with an exception, since a single delete does
+     * not return the status.
+     */
+    public default CompletableFuture<BatchDeleteResult> deleteTreesPlanted(Collection<String> uuids) {
+        DeleteOutcome[] outcomes = new DeleteOutcome[uuids.size()];
+        return BoundedFanOut.run(uuids.iterator(), 1, withCurrentDeadline(this::deleteATreePlanted),
+                (index, uuid, deleted, error) -> {
+                    if (error != null) {
+                        outcomes[index] = new DeleteOutcome(uuid, RaaSException.from(error));
+                    } else if (Boolean.TRUE.equals(deleted)) {
+                        outcomes[index] = new DeleteOutcome(uuid, 200);
+                    } else {
+                        outcomes[index] = new DeleteOutcome(uuid,
+                                new RaaSException("Tree planting request was not deleted."));
+                    }
+                }).thenApply(done -> new BatchDeleteResult(Arrays.asList(outcomes)));
+    }
+
+    /**
+     * Stops any background work. Does nothing by default.
+     */
+    @Override
+    public default void close() {}
+
+    /**
+     * Carries the caller's deadline to the later calls of a fan-out, which are started from the threads
+     * completing earlier ones.
+     */
+    private static <T, R> BoundedFanOut.Call<T, R> withCurrentDeadline(BoundedFanOut.Call<T, R> call) {
+        Deadline deadline = Deadline.current();
+        return deadline == null ? call : item -> deadline.resume(() -> call.apply(item));
+    }
 }
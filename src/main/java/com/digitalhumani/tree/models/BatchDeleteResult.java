@@ -0,0 +1,51 @@
+package com.digitalhumani.tree.models;
+
+import java.util.List;
+
+public final class BatchDeleteResult {
+
+    private List<DeleteOutcome> outcomes;
+    private int deleted;
+    private int notFound;
+    private int failed;
+
+    /**
+     * The outcome of each delete request, in the order the uuids were supplied.
+     *
+     * @return the outcome of each request.
+     */
+    public List<DeleteOutcome> getOutcomes() {
+        return this.outcomes;
+    }
+
+    public int getDeleted() {
+        return this.deleted;
+    }
+
+    /**
+     * @return the number of uuids the RaaS API had no tree planting request for (a 404).
+     */
+    public int getNotFound() {
+        return this.notFound;
+    }
+
+    /**
+     * @return the number of other failures, with a status code or without a response.
+     */
+    public int getFailed() {
+        return this.failed;
+    }
+
+    public BatchDeleteResult(List<DeleteOutcome> outcomes) {
+        this.outcomes = outcomes;
+        for (DeleteOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                this.deleted++;
+            } else if (outcome.getStatusCode() == 404) {
+                this.notFound++;
+            } else {
+                this.failed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.digitalhumani.tree.models;
+
+public final class BatchLookupResult {
+
+    private long found;
+    private long notFound;
+    private long failed;
+
+    public long getFound() {
+        return this.found;
+    }
+
+    public long getNotFound() {
+        return this.notFound;
+    }
+
+    public long getFailed() {
+        return this.failed;
+    }
+
+    public BatchLookupResult(long found, long notFound, long failed) {
+        this.found = found;
+        this.notFound = notFound;
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,49 @@
+package com.digitalhumani.tree.models;
+
+import java.util.List;
+
+public final class BulkPlantingResult {
+
+    private List<TreesPlanted> results;
+    private int succeeded;
+    private int failed;
+    private long treesPlanted;
+
+    /**
+     * The result of each tree planting request, in the order the requests were supplied.
+     *
+     * @return the result of each request.
+     */
+    public List<TreesPlanted> getResults() {
+        return this.results;
+    }
+
+    public int getSucceeded() {
+        return this.succeeded;
+    }
+
+    public int getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * @return the total number of trees planted by the successful requests.
+     */
+    public long getTreesPlanted() {
+        return this.treesPlanted;
+    }
+
+    public BulkPlantingResult(List<TreesPlanted> results) {
+        this.results = results;
+        for (TreesPlanted result : results) {
+            if (result.isSuccess()) {
+                this.succeeded++;
+                if (result.getTreeCount() != null) {
+                    this.treesPlanted += result.getTreeCount();
+                }
+            } else {
+                this.failed++;
+            }
+        }
+    }
+}
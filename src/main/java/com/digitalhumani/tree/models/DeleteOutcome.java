@@ -0,0 +1,45 @@
+package com.digitalhumani.tree.models;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+public final class DeleteOutcome {
+
+    private String uuid;
+    private int statusCode;
+    private RaaSException exception;
+
+    public String getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * @return the status code of the response to the delete request, or 0 if there was no response.
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * @return the reason there was no response, or null if there was one.
+     */
+    public RaaSException getException() {
+        return this.exception;
+    }
+
+    /**
+     * @return whether the tree planting request was deleted (the response was a 2xx).
+     */
+    public boolean isSuccess() {
+        return this.statusCode >= 200 && this.statusCode < 300;
+    }
+
+    public DeleteOutcome(String uuid, int statusCode) {
+        this.uuid = uuid;
+        this.statusCode = statusCode;
+    }
+
+    public DeleteOutcome(String uuid, RaaSException exception) {
+        this.uuid = uuid;
+        this.exception = exception;
+    }
+}
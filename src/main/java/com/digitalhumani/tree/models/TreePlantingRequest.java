@@ -1,10 +1,13 @@
 package com.digitalhumani.tree.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class TreePlantingRequest {
     private String enterpriseId;
     private String projectId;
     private String user;
     private Integer treeCount;
+    private String idempotencyKey;
 
     public String getEnterpriseId() {
         return this.enterpriseId;
@@ -22,10 +25,25 @@ public class TreePlantingRequest {
         return this.treeCount;
     }
 
+    /**
+     * @return the key identifying this planting, so that it is only planted once however often it is sent;
+     *         null if none was supplied. Sent as a header rather than in the request body.
+     */
+    @JsonIgnore
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
     public TreePlantingRequest(String enterpriseId, String projectId, String user, Integer treeCount) {
         this.enterpriseId = enterpriseId;
         this.projectId = projectId;
         this.user = user;
         this.treeCount = treeCount;
     }
+
+    public TreePlantingRequest(String enterpriseId, String projectId, String user, Integer treeCount,
+            String idempotencyKey) {
+        this(enterpriseId, projectId, user, treeCount);
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -55,6 +55,12 @@ public final class TreesPlanted extends RaaSResult {
         this.treeCount = treeCount;
     }
 
+    public TreesPlanted(String uuid, String enterpriseId, String projectId, String user, Integer treeCount,
+            Date created) {
+        this(uuid, enterpriseId, projectId, user, treeCount);
+        this.created = created;
+    }
+
     public TreesPlanted(RaaSException exception) {
         super(exception);
     }
@@ -0,0 +1,18 @@
+package com.digitalhumani.concurrent;
+
+/**
+ * Access to virtual threads, which only exist from Java 21.
+ *
+ * This is the Java 21 version, which the JVM loads instead of the Java 11 version on Java 21 and later.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return whether the current thread is a virtual thread, and so can block cheaply.
+     */
+    public static boolean isVirtual() {
+        return Thread.currentThread().isVirtual();
+    }
+}
@@ -3,6 +3,7 @@ package com.digitalhumani;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doAnswer;
@@ -10,13 +11,23 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import javax.naming.ConfigurationException;
 
 import com.digitalhumani.enterprise.interfaces.Enterprise;
 import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
+import com.digitalhumani.exceptions.RaaSException;
 import com.digitalhumani.tree.interfaces.TreePlanter;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
 
 /**
@@ -208,4 +219,113 @@ public class RaaSTest {
         verify(mockEnterprise, times(1)).getTreesPlantedForMonth(enterpriseId, month);
     }
 
+    @Test
+    public void should_Call_Enterprise_Only_Once_For_Get_Trees_Planted_For_Range() throws Exception {
+
+        TreePlanter mockPlanter = mock(TreePlanter.class);
+        Enterprise mockEnterprise = mock(Enterprise.class);
+
+        String url = "https://foo.bar";
+        String enterpriseId = "foo";
+        String apiKey = "junit-api-key-test";
+        YearMonth from = YearMonth.of(2022, 1);
+        YearMonth to = YearMonth.of(2022, 2);
+
+        Map<YearMonth, TreesPlantedForMonth> months = new LinkedHashMap<>();
+        months.put(from, new TreesPlantedForMonth(100));
+        months.put(to, new TreesPlantedForMonth(50));
+        TreesPlantedForRange result = new TreesPlantedForRange(months);
+
+        doAnswer(invocation -> CompletableFuture.completedFuture(result)).when(mockEnterprise)
+                .getTreesPlantedForRange(enterpriseId, from, to);
+
+        RaaS raas = new RaaS(mockPlanter, mockEnterprise, url, enterpriseId, apiKey);
+
+        var future = raas.getTreesPlantedForRange(from, to).thenAccept(resp -> {
+            assertEquals(150, resp.getTotalTrees());
+        });
+
+        future.get();
+
+        verify(mockEnterprise, times(1)).getTreesPlantedForRange(enterpriseId, from, to);
+    }
+
+    @Test
+    public void should_Call_TreePlanter_Only_Once_For_Bulk_Planting() throws Exception {
+
+        TreePlanter mockPlanter = mock(TreePlanter.class);
+        Enterprise mockEnterprise = mock(Enterprise.class);
+
+        String url = "https://foo.bar";
+        String enterpriseId = "foo";
+        String apiKey = "junit-api-key-test";
+
+        List<TreePlantingRequest> requests = new ArrayList<>();
+        requests.add(new TreePlantingRequest(enterpriseId, "bar", "JUnit", 2));
+
+        List<TreesPlanted> results = new ArrayList<>();
+        results.add(new TreesPlanted("uuid", enterpriseId, "bar", "JUnit", 2));
+        BulkPlantingResult result = new BulkPlantingResult(results);
+
+        doAnswer(invocation -> CompletableFuture.completedFuture(result)).when(mockPlanter).plantTreesBulk(requests);
+
+        RaaS raas = new RaaS(mockPlanter, mockEnterprise, url, enterpriseId, apiKey);
+
+        var future = raas.plantTreesBulk(requests).thenAccept(resp -> {
+            assertEquals(1, resp.getSucceeded());
+            assertEquals(2, resp.getTreesPlanted());
+        });
+
+        future.get();
+
+        verify(mockPlanter, times(1)).plantTreesBulk(requests);
+    }
+
+    @Test
+    public void should_Return_Result_When_Planting_A_Tree_Blocking() throws Exception {
+        TreePlanter mockPlanter = mock(TreePlanter.class);
+        Enterprise mockEnterprise = mock(Enterprise.class);
+
+        String enterpriseId = "foo";
+        TreesPlanted result = new TreesPlanted("uuid", enterpriseId, "bar", "JUnit", 1);
+
+        doAnswer(invocation -> CompletableFuture.completedFuture(result)).when(mockPlanter).plantATree(enterpriseId,
+                "bar", "JUnit");
+
+        RaaS raas = new RaaS(mockPlanter, mockEnterprise, "https://foo.bar", enterpriseId, "junit-api-key-test");
+
+        assertSame(result, raas.plantATreeBlocking("bar", "JUnit"));
+        verify(mockPlanter, times(1)).plantATree(enterpriseId, "bar", "JUnit");
+    }
+
+    @Test
+    public void should_Throw_RaaSException_When_Blocking_Request_Fails() throws Exception {
+        TreePlanter mockPlanter = mock(TreePlanter.class);
+        Enterprise mockEnterprise = mock(Enterprise.class);
+
+        RaaSException failure = new RaaSException("Not authorised - check your API key.");
+        doAnswer(invocation -> CompletableFuture.failedFuture(failure)).when(mockPlanter).getATreePlanted("uuid");
+        doAnswer(invocation -> CompletableFuture.failedFuture(new IOException("Connection reset")))
+                .when(mockPlanter).deleteATreePlanted("uuid");
+
+        RaaS raas = new RaaS(mockPlanter, mockEnterprise, "https://foo.bar", "foo", "junit-api-key-test");
+
+        assertSame(failure, assertThrows(RaaSException.class, () -> raas.getATreePlantedBlocking("uuid")));
+        RaaSException wrapped = assertThrows(RaaSException.class, () -> raas.deleteATreePlantedBlocking("uuid"));
+        assertEquals("Failed to send request to RaaS API.", wrapped.getMessage());
+        assertTrue(wrapped.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void should_Close_The_TreePlanter_When_Closed() {
+        TreePlanter mockPlanter = mock(TreePlanter.class);
+        Enterprise mockEnterprise = mock(Enterprise.class);
+
+        try (RaaS raas = new RaaS(mockPlanter, mockEnterprise, "https://foo.bar", "foo", "junit-api-key-test")) {
+            verify(mockPlanter, times(0)).close();
+        }
+
+        verify(mockPlanter, times(1)).close();
+    }
+
 }
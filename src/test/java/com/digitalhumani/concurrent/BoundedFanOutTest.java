@@ -0,0 +1,86 @@
+package com.digitalhumani.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundedFanOutTest {
+
+    @Test
+    public void should_Never_Exceed_Max_In_Flight() throws Exception {
+        List<Integer> items = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        AtomicReferenceArray<Integer> results = new AtomicReferenceArray<>(items.size());
+
+        BoundedFanOut.run(items.iterator(), 8, (Integer item) -> {
+            maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return item * 2;
+            }, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS));
+        }, (index, item, result, error) -> results.set(index, result)).get(10, TimeUnit.SECONDS);
+
+        assertTrue(maxSeen.get() <= 8);
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i * 2, results.get(i));
+        }
+    }
+
+    @Test
+    public void should_Handle_Many_Synchronously_Completed_Calls() throws Exception {
+        List<Integer> items = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+        AtomicInteger delivered = new AtomicInteger();
+
+        BoundedFanOut.run(items.iterator(), 1, (Integer item) -> CompletableFuture.completedFuture(item),
+                (index, item, result, error) -> delivered.incrementAndGet()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(items.size(), delivered.get());
+    }
+
+    @Test
+    public void should_Pass_Failures_To_The_Callback() throws Exception {
+        List<String> items = new ArrayList<>();
+        items.add("ok");
+        items.add("thrown");
+        items.add("failed");
+        AtomicReferenceArray<Throwable> errors = new AtomicReferenceArray<>(items.size());
+
+        BoundedFanOut.run(items.iterator(), 2, (String item) -> {
+            if (item.equals("thrown")) {
+                throw new RaaSException("thrown");
+            }
+            if (item.equals("failed")) {
+                return CompletableFuture.supplyAsync(() -> {
+                    throw new IllegalStateException("failed");
+                });
+            }
+            return CompletableFuture.completedFuture(item);
+        }, (index, item, result, error) -> errors.set(index, error)).get(10, TimeUnit.SECONDS);
+
+        assertNull(errors.get(0));
+        assertEquals(RaaSException.class, errors.get(1).getClass());
+        assertEquals(IllegalStateException.class, errors.get(2).getClass());
+    }
+
+    @Test
+    public void should_Complete_Immediately_With_No_Items() throws Exception {
+        var done = BoundedFanOut.run(new ArrayList<String>().iterator(), 4,
+                (String item) -> CompletableFuture.completedFuture(item), (index, item, result, error) -> { });
+
+        assertTrue(done.isDone());
+    }
+}
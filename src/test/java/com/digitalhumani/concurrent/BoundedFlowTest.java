@@ -0,0 +1,171 @@
+package com.digitalhumani.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundedFlowTest {
+
+    /**
+     * Publishes the items of an iterator synchronously from {@code request}, recording the demand.
+     */
+    private static final class IteratorPublisher implements Flow.Publisher<Integer> {
+        final Iterator<Integer> items;
+        long requested;
+        boolean cancelled;
+
+        IteratorPublisher(int count) {
+            this.items = IntStream.range(0, count).boxed().iterator();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    for (long i = 0; i < n && items.hasNext() && !cancelled; i++) {
+                        subscriber.onNext(items.next());
+                    }
+                    if (!items.hasNext() && !cancelled) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static final class CollectingSubscriber<R> implements Flow.Subscriber<R> {
+        final List<R> results = new CopyOnWriteArrayList<>();
+        final CompletableFuture<List<R>> done = new CompletableFuture<>();
+        final long initialDemand;
+        Flow.Subscription subscription;
+
+        CollectingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (this.initialDemand > 0) {
+                subscription.request(this.initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(R item) {
+            this.results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.complete(this.results);
+        }
+    }
+
+    @Test
+    public void should_Publish_All_Results_Never_Exceeding_Max_In_Flight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+
+        try (SubmissionPublisher<Integer> upstream = new SubmissionPublisher<>()) {
+            new BoundedFlow<>(upstream, 8, (Integer item) -> {
+                maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    inFlight.decrementAndGet();
+                    return item * 2;
+                }, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS));
+            }).subscribe(subscriber);
+
+            for (int i = 0; i < 200; i++) {
+                upstream.submit(i);
+            }
+        }
+
+        List<Integer> results = new ArrayList<>(subscriber.done.get(10, TimeUnit.SECONDS));
+        results.sort(null);
+        assertEquals(IntStream.range(0, 200).map(i -> i * 2).boxed().collect(Collectors.toList()), results);
+        assertTrue(maxSeen.get() <= 8);
+    }
+
+    @Test
+    public void should_Only_Request_Upstream_As_Results_Are_Consumed() {
+        IteratorPublisher upstream = new IteratorPublisher(100);
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(0);
+
+        new BoundedFlow<>(upstream, 4, (Integer item) -> CompletableFuture.completedFuture(item))
+                .subscribe(subscriber);
+
+        // The calls complete straight away, but their results wait for the subscriber.
+        assertEquals(4, upstream.requested);
+        assertTrue(subscriber.results.isEmpty());
+
+        subscriber.subscription.request(3);
+        assertEquals(List.of(0, 1, 2), subscriber.results);
+        assertEquals(7, upstream.requested);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(100, subscriber.results.size());
+        assertTrue(subscriber.done.isDone());
+    }
+
+    @Test
+    public void should_Fail_And_Cancel_Upstream_When_A_Call_Fails() {
+        IteratorPublisher upstream = new IteratorPublisher(100);
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        RaaSException failure = new RaaSException("boom");
+
+        new BoundedFlow<>(upstream, 4, (Integer item) -> {
+            if (item == 5) {
+                throw failure;
+            }
+            return CompletableFuture.completedFuture(item);
+        }).subscribe(subscriber);
+
+        assertTrue(subscriber.done.isCompletedExceptionally());
+        assertTrue(upstream.cancelled);
+        assertEquals(List.of(0, 1, 2, 3, 4), subscriber.results);
+    }
+
+    @Test
+    public void should_Cancel_Upstream_When_Subscriber_Cancels() {
+        IteratorPublisher upstream = new IteratorPublisher(100);
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(2);
+
+        new BoundedFlow<>(upstream, 4, (Integer item) -> CompletableFuture.completedFuture(item))
+                .subscribe(subscriber);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+
+        assertTrue(upstream.cancelled);
+        assertEquals(List.of(0, 1), subscriber.results);
+        assertTrue(!subscriber.done.isDone());
+    }
+}
@@ -0,0 +1,84 @@
+package com.digitalhumani.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digitalhumani.exceptions.RaaSException;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void should_Share_A_Pending_Call_With_The_Same_Key() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        var first = this.singleFlight.execute("a", () -> {
+            this.calls.incrementAndGet();
+            return pending;
+        });
+        var second = this.singleFlight.execute("a", () -> {
+            this.calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertFalse(first.isDone());
+
+        pending.complete("result");
+
+        assertEquals("result", first.get());
+        assertEquals("result", second.get());
+        assertEquals(1, this.calls.get());
+        assertEquals(0, this.singleFlight.size());
+    }
+
+    @Test
+    public void should_Make_A_New_Call_Once_The_Previous_One_Completed() throws Exception {
+        assertEquals("1", this.singleFlight.execute("a", this::count).get());
+        assertEquals("2", this.singleFlight.execute("a", this::count).get());
+        assertEquals("3", this.singleFlight.execute("b", this::count).get());
+    }
+
+    @Test
+    public void should_Not_Let_One_Caller_Cancel_The_Call_For_Others() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        var first = this.singleFlight.execute("a", () -> pending);
+        var second = this.singleFlight.execute("a", () -> pending);
+        first.cancel(false);
+        pending.complete("result");
+
+        assertTrue(first.isCancelled());
+        assertEquals("result", second.get());
+    }
+
+    @Test
+    public void should_Share_Failures_And_Release_The_Key() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        var first = this.singleFlight.execute("a", () -> pending);
+        var second = this.singleFlight.execute("a", () -> pending);
+
+        pending.completeExceptionally(new RaaSException("foo"));
+
+        assertThrows(ExecutionException.class, first::get);
+        assertThrows(ExecutionException.class, second::get);
+        assertEquals(0, this.singleFlight.size());
+
+        assertThrows(RaaSException.class, () -> this.singleFlight.execute("a", () -> {
+            throw new RaaSException("bar");
+        }));
+        assertEquals(0, this.singleFlight.size());
+    }
+
+    private CompletableFuture<String> count() {
+        return CompletableFuture.completedFuture(String.valueOf(this.calls.incrementAndGet()));
+    }
+}
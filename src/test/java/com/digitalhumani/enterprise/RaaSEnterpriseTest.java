@@ -4,15 +4,31 @@ package com.digitalhumani.enterprise;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.digitalhumani.config.RaaSOptions;
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.exceptions.RaaSTimeoutException;
+import com.digitalhumani.http.Deadline;
+import com.digitalhumani.http.RaaSTransport;
 import com.digitalhumani.tree.RaaSTreePlanter;
 import static com.github.tomakehurst.wiremock.client.WireMock.badRequest;
 import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
 import static com.github.tomakehurst.wiremock.client.WireMock.unauthorized;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import org.junit.jupiter.api.Test;
@@ -120,4 +136,62 @@ class RaaSEnterpriseTest {
         future.get();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_Return_Per_Month_Results_And_Total_For_Range() throws Exception {
+        String enterpriseId = "123";
+
+        raasMock.stubFor(get(String.format("/enterprise/%s/treeCount/2021-11", enterpriseId))
+            .willReturn(okJson("{ \"count\": 10 }")));
+        raasMock.stubFor(get(String.format("/enterprise/%s/treeCount/2021-12", enterpriseId))
+            .willReturn(notFound()));
+        raasMock.stubFor(get(String.format("/enterprise/%s/treeCount/2022-01", enterpriseId))
+            .willReturn(okJson("{ \"count\": 5 }")));
+
+        RaaSEnterprise raasEnterprise = new RaaSEnterprise("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        TreesPlantedForRange result = raasEnterprise
+            .getTreesPlantedForRange(enterpriseId, YearMonth.of(2021, 11), YearMonth.of(2022, 1)).get();
+
+        assertEquals(List.of(YearMonth.of(2021, 11), YearMonth.of(2021, 12), YearMonth.of(2022, 1)),
+            new ArrayList<>(result.getMonths().keySet()));
+        assertEquals(10, result.getMonths().get(YearMonth.of(2021, 11)).getTotalTrees());
+        assertEquals("Could not find enterprise data.",
+            result.getMonths().get(YearMonth.of(2021, 12)).getException().getMessage());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(15, result.getTotalTrees());
+    }
+
+    @Test
+    public void should_Apply_Each_Callers_Deadline_Only_To_That_Caller_When_Sharing_A_Month_Load() throws Exception {
+        String month = "02-2022";
+        String enterpriseId = "123";
+
+        raasMock.stubFor(get(String.format("/enterprise/%s/treeCount/%s", enterpriseId, month))
+            .willReturn(okJson("{ \"count\": \"200\" }").withFixedDelay(500)));
+
+        RaaSEnterprise raasEnterprise = new RaaSEnterprise("http://localhost:" + HTTP_PORT, X_API_KEY,
+            new RaaSTransport(), new RaaSOptions().setMonthCache(Duration.ofMinutes(1)));
+
+        // The caller with the short deadline starts the load the other caller shares.
+        CompletableFuture<TreesPlantedForMonth> hurried;
+        try (Deadline deadline = Deadline.within(Duration.ofMillis(100))) {
+            hurried = raasEnterprise.getTreesPlantedForMonth(enterpriseId, month);
+        }
+        CompletableFuture<TreesPlantedForMonth> unhurried = raasEnterprise.getTreesPlantedForMonth(enterpriseId, month);
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, hurried::get);
+        assertEquals(RaaSTimeoutException.class, timedOut.getCause().getClass());
+        assertEquals(200, unhurried.get().getTotalTrees());
+        raasMock.verify(1, getRequestedFor(urlEqualTo(String.format("/enterprise/%s/treeCount/%s", enterpriseId, month))));
+    }
+
+    @Test
+    public void should_Reject_Range_Ending_Before_It_Starts() {
+        RaaSEnterprise raasEnterprise = new RaaSEnterprise("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> raasEnterprise.getTreesPlantedForRange("123", YearMonth.of(2022, 2), YearMonth.of(2022, 1)));
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.digitalhumani.enterprise;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.exceptions.RaaSException;
+
+import org.junit.jupiter.api.Test;
+
+public class TreesPlantedForMonthCacheTest {
+
+    private static final Clock MAY_2022 = Clock.fixed(Instant.parse("2022-05-15T12:00:00Z"), ZoneOffset.UTC);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final TreesPlantedForMonthCache cache = new TreesPlantedForMonthCache(Duration.ofSeconds(10), 3,
+            MAY_2022, this.nanoTime::get);
+
+    private Supplier<CompletableFuture<TreesPlantedForMonth>> loader() {
+        return () -> CompletableFuture.completedFuture(new TreesPlantedForMonth(this.loads.incrementAndGet()));
+    }
+
+    @Test
+    public void should_Cache_Past_Months_Until_Evicted() throws Exception {
+        assertEquals(1, this.cache.get("123", "2022-04", loader()).get().getTotalTrees());
+
+        this.nanoTime.addAndGet(Duration.ofDays(365).toNanos());
+
+        assertEquals(1, this.cache.get("123", "2022-04", loader()).get().getTotalTrees());
+        assertEquals(1, this.cache.get("123", "04-2022", loader()).get().getTotalTrees());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void should_Evict_The_Least_Recently_Used_Month_When_Full() throws Exception {
+        this.cache.get("123", "2022-01", loader()).get();
+        this.cache.get("123", "2022-02", loader()).get();
+        this.cache.get("123", "2022-03", loader()).get();
+        this.cache.get("123", "2022-01", loader()).get();
+
+        this.cache.get("123", "2022-04", loader()).get();
+
+        assertEquals(3, this.cache.size());
+        assertEquals(1, this.cache.get("123", "2022-01", loader()).get().getTotalTrees());
+        assertEquals(5, this.cache.get("123", "2022-02", loader()).get().getTotalTrees());
+    }
+
+    @Test
+    public void should_Cache_Each_Enterprise_Separately() throws Exception {
+        this.cache.get("123", "2022-04", loader()).get();
+        this.cache.get("456", "2022-04", loader()).get();
+
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    public void should_Refresh_Current_Month_In_Background_Before_It_Expires() throws Exception {
+        assertEquals(1, this.cache.get("123", "2022-05", loader()).get().getTotalTrees());
+
+        this.nanoTime.addAndGet(Duration.ofSeconds(7).toNanos());
+        assertEquals(1, this.cache.get("123", "2022-05", loader()).get().getTotalTrees());
+        assertEquals(1, this.loads.get());
+
+        // Past the refresh point: the cached count is returned while a refresh is started.
+        this.nanoTime.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals(1, this.cache.get("123", "2022-05", loader()).get().getTotalTrees());
+        assertEquals(2, this.loads.get());
+        assertEquals(2, this.cache.get("123", "2022-05", loader()).get().getTotalTrees());
+    }
+
+    @Test
+    public void should_Wait_For_Current_Month_Once_Expired() throws Exception {
+        this.cache.get("123", "2022-05", loader()).get();
+
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(2, this.cache.get("123", "2022-05", loader()).get().getTotalTrees());
+    }
+
+    @Test
+    public void should_Share_A_Pending_Load_Between_Callers() throws Exception {
+        CompletableFuture<TreesPlantedForMonth> pending = new CompletableFuture<>();
+        Supplier<CompletableFuture<TreesPlantedForMonth>> pendingLoader = () -> {
+            this.loads.incrementAndGet();
+            return pending;
+        };
+
+        var first = this.cache.get("123", "2022-04", pendingLoader);
+        var second = this.cache.get("123", "2022-04", pendingLoader);
+        assertFalse(first.isDone());
+
+        pending.complete(new TreesPlantedForMonth(42));
+
+        assertEquals(42, first.get().getTotalTrees());
+        assertEquals(42, second.get().getTotalTrees());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void should_Not_Block_Other_Callers_While_Starting_A_Load() throws Exception {
+        CompletableFuture<TreesPlantedForMonth> pending = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<TreesPlantedForMonth>> other = new AtomicReference<>();
+        Supplier<CompletableFuture<TreesPlantedForMonth>> slowLoader = () -> {
+            this.loads.incrementAndGet();
+            Thread caller = new Thread(() -> other.set(this.cache.get("123", "2022-04", loader())));
+            caller.start();
+            try {
+                caller.join(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return pending;
+        };
+
+        var first = this.cache.get("123", "2022-04", slowLoader);
+        assertNotNull(other.get());
+
+        pending.complete(new TreesPlantedForMonth(42));
+
+        assertEquals(42, first.get().getTotalTrees());
+        assertEquals(42, other.get().get().getTotalTrees());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void should_Not_Cache_Failures_Or_Unknown_Month_Formats() throws Exception {
+        Supplier<CompletableFuture<TreesPlantedForMonth>> failing = () -> {
+            this.loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new TreesPlantedForMonth(new RaaSException("foo")));
+        };
+
+        assertFalse(this.cache.get("123", "2022-04", failing).get().isSuccess());
+        assertTrue(this.cache.get("123", "2022-04", loader()).get().isSuccess());
+
+        this.cache.get("123", "April 2022", loader()).get();
+        this.cache.get("123", "April 2022", loader()).get();
+        assertEquals(4, this.loads.get());
+    }
+}
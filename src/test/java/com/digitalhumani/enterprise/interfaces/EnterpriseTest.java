@@ -0,0 +1,36 @@
+package com.digitalhumani.enterprise.interfaces;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.enterprise.models.TreesPlantedForRange;
+import com.digitalhumani.exceptions.RaaSException;
+
+import org.junit.jupiter.api.Test;
+
+public class EnterpriseTest {
+
+    @Test
+    public void should_Get_A_Range_With_The_Single_Month_Call() throws Exception {
+        List<String> months = new CopyOnWriteArrayList<>();
+        // An implementation written against the original interface, with only the single-month method.
+        Enterprise enterprise = (enterpriseId, month) -> {
+            months.add(month);
+            return month.equals("2022-02") ? CompletableFuture.failedFuture(new RaaSException("Failed."))
+                    : CompletableFuture.completedFuture(new TreesPlantedForMonth(10));
+        };
+
+        TreesPlantedForRange range = enterprise.getTreesPlantedForRange("123", YearMonth.of(2022, 1),
+                YearMonth.of(2022, 3)).get();
+
+        assertEquals(List.of("2022-01", "2022-02", "2022-03"), months);
+        assertEquals(2, range.getSucceeded());
+        assertEquals(1, range.getFailed());
+        assertEquals(20, range.getTotalTrees());
+    }
+}
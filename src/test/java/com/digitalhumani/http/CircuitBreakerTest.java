@@ -0,0 +1,127 @@
+package com.digitalhumani.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digitalhumani.config.CircuitBreakerPolicy;
+
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(10).toNanos();
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(new CircuitBreakerPolicy()
+            .setWindow(4, 3)
+            .setFailureRateThreshold(0.5)
+            .setSlowCalls(Duration.ofSeconds(5), 0.75)
+            .setOpenDuration(Duration.ofSeconds(30), 2)
+            .setListener((from, to) -> this.transitions.add(from + "->" + to)), this.nanoTime::get);
+
+    private void call(boolean failed, long duration) {
+        assertTrue(this.breaker.tryAcquire());
+        this.breaker.record(failed, duration);
+    }
+
+    @Test
+    public void should_Open_When_Failure_Rate_Reaches_Threshold() {
+        call(false, FAST);
+        call(false, FAST);
+        call(true, FAST);
+        assertEquals(CircuitBreakerState.CLOSED, this.breaker.getState());
+
+        call(true, FAST);
+
+        assertEquals(CircuitBreakerState.OPEN, this.breaker.getState());
+        assertFalse(this.breaker.tryAcquire());
+        assertEquals(List.of("CLOSED->OPEN"), this.transitions);
+    }
+
+    @Test
+    public void should_Only_Count_The_Most_Recent_Calls() {
+        call(true, FAST);
+        call(false, FAST);
+        call(false, FAST);
+        call(false, FAST);
+        call(false, FAST);
+        call(true, FAST);
+        assertEquals(CircuitBreakerState.CLOSED, this.breaker.getState());
+
+        // 2 of the last 4 calls failed, though only 2 of all 7 did.
+        call(true, FAST);
+
+        assertEquals(CircuitBreakerState.OPEN, this.breaker.getState());
+    }
+
+    @Test
+    public void should_Open_When_Slow_Call_Rate_Reaches_Threshold() {
+        call(false, SLOW);
+        call(false, SLOW);
+        call(false, FAST);
+        assertEquals(CircuitBreakerState.CLOSED, this.breaker.getState());
+
+        call(false, SLOW);
+
+        assertEquals(CircuitBreakerState.OPEN, this.breaker.getState());
+    }
+
+    @Test
+    public void should_Close_After_Successful_Probes() {
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        this.nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(this.breaker.tryAcquire());
+        assertTrue(this.breaker.tryAcquire());
+        assertEquals(CircuitBreakerState.HALF_OPEN, this.breaker.getState());
+        assertFalse(this.breaker.tryAcquire());
+
+        this.breaker.record(false, FAST);
+        this.breaker.record(false, FAST);
+
+        assertEquals(CircuitBreakerState.CLOSED, this.breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), this.transitions);
+
+        // The window starts afresh.
+        call(true, FAST);
+        assertEquals(CircuitBreakerState.CLOSED, this.breaker.getState());
+    }
+
+    @Test
+    public void should_Reopen_When_A_Probe_Fails() {
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        this.nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        call(true, FAST);
+
+        assertEquals(CircuitBreakerState.OPEN, this.breaker.getState());
+        assertFalse(this.breaker.tryAcquire());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), this.transitions);
+    }
+
+    @Test
+    public void should_Return_Released_Probes() {
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+        this.nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(this.breaker.tryAcquire());
+        assertTrue(this.breaker.tryAcquire());
+        this.breaker.release();
+
+        assertTrue(this.breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,126 @@
+package com.digitalhumani.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.config.HedgePolicy;
+
+import org.junit.jupiter.api.Test;
+
+public class HedgerTest {
+
+    private static final HttpRequest GET = HttpRequest.newBuilder(URI.create("http://localhost/tree/123")).GET()
+            .build();
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response() {
+        return mock(HttpResponse.class);
+    }
+
+    @Test
+    public void should_Use_Hedge_And_Cancel_Slow_Request() throws Exception {
+        Hedger hedger = new Hedger(new HedgePolicy().setDelay(Duration.ofMillis(10)), null);
+        CompletableFuture<HttpResponse<String>> slow = new CompletableFuture<>();
+        HttpResponse<String> fast = response();
+        List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>(List.of(slow,
+                CompletableFuture.completedFuture(fast))));
+
+        HttpResponse<String> result = hedger.send(GET, request -> attempts.remove(0)).get(5, TimeUnit.SECONDS);
+
+        assertSame(fast, result);
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void should_Wait_For_Hedge_When_First_Request_Fails() throws Exception {
+        Hedger hedger = new Hedger(new HedgePolicy().setDelay(Duration.ofMillis(10)), null);
+        CompletableFuture<HttpResponse<String>> first = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> second = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>(List.of(first, second)));
+
+        CompletableFuture<HttpResponse<String>> result = hedger.send(GET, request -> attempts.remove(0));
+        while (!attempts.isEmpty()) {
+            Thread.sleep(1);
+        }
+        first.completeExceptionally(new IOException("Connection reset"));
+        assertFalse(result.isDone());
+
+        HttpResponse<String> response = response();
+        second.complete(response);
+        assertSame(response, result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_Not_Hedge_When_Budget_Is_Spent() throws Exception {
+        Hedger hedger = new Hedger(new HedgePolicy().setDelay(Duration.ofMillis(1)).setHedgeBudget(0, 0), null);
+        List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<HttpResponse<String>> result = hedger.send(GET, request -> {
+            CompletableFuture<HttpResponse<String>> attempt = new CompletableFuture<>();
+            attempts.add(attempt);
+            return attempt;
+        });
+        Thread.sleep(50);
+
+        assertEquals(1, attempts.size());
+        attempts.get(0).completeExceptionally(new IOException("Connection reset"));
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof IOException);
+    }
+
+    @Test
+    public void should_Hedge_After_Observed_Percentile() throws Exception {
+        Hedger hedger = new Hedger(new HedgePolicy().setDelay(Duration.ofSeconds(30))
+                .setDelayPercentile(50, 64).setHedgeBudget(1, 10), null);
+        for (int i = 0; i < 64; i++) {
+            hedger.send(GET, request -> CompletableFuture.completedFuture(response())).get();
+        }
+
+        HttpResponse<String> fast = response();
+        List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>(List.of(new CompletableFuture<>(),
+                CompletableFuture.completedFuture(fast))));
+
+        // Without the observed percentile the hedge would wait for the 30s fixed delay.
+        assertSame(fast, hedger.send(GET, request -> attempts.remove(0)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_Not_Lower_The_Delay_When_Hedges_Win() throws Exception {
+        Hedger hedger = new Hedger(new HedgePolicy().setDelay(Duration.ofMillis(10))
+                .setDelayPercentile(50, 64).setHedgeBudget(1, 100), null);
+        for (int i = 0; i < 64; i++) {
+            List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>(
+                    List.of(new CompletableFuture<>(), CompletableFuture.completedFuture(response()))));
+            hedger.send(GET, request -> attempts.remove(0)).get(5, TimeUnit.SECONDS);
+        }
+
+        // The slow first attempts count for at least the 10ms they ran, not the instant hedges that beat them,
+        // so the next request is still not hedged before about 10ms.
+        long start = System.nanoTime();
+        long[] hedgedAfter = new long[1];
+        List<CompletableFuture<HttpResponse<String>>> attempts = Collections.synchronizedList(new ArrayList<>(
+                List.of(new CompletableFuture<>(), CompletableFuture.completedFuture(response()))));
+        hedger.send(GET, request -> {
+            hedgedAfter[0] = System.nanoTime() - start;
+            return attempts.remove(0);
+        }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(hedgedAfter[0] >= TimeUnit.MILLISECONDS.toNanos(9));
+    }
+}
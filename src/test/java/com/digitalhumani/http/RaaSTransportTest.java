@@ -0,0 +1,439 @@
+package com.digitalhumani.http;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digitalhumani.config.CircuitBreakerPolicy;
+import com.digitalhumani.config.HedgePolicy;
+import com.digitalhumani.config.RaaSOptions;
+import com.digitalhumani.config.RateLimit;
+import com.digitalhumani.config.RetryPolicy;
+import com.digitalhumani.exceptions.RaaSCircuitOpenException;
+import com.digitalhumani.exceptions.RaaSRateLimitedException;
+import com.digitalhumani.exceptions.RaaSTimeoutException;
+import com.digitalhumani.metrics.EndpointStats;
+import com.digitalhumani.metrics.RaaSMetrics;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class RaaSTransportTest {
+
+    private static final Integer HTTP_PORT = 8080;
+
+    @RegisterExtension
+    static WireMockExtension raasMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().port(HTTP_PORT))
+            .build();
+
+    private static RaaSOptions fastRetries() {
+        return new RaaSOptions()
+                .setRetryPolicy(new RetryPolicy().setBackoff(Duration.ofMillis(1), Duration.ofMillis(10)));
+    }
+
+    private static HttpRequest getRequest() {
+        return getRequest("/tree/123", "Junit");
+    }
+
+    private static HttpRequest getRequest(String path, String apiKey) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + HTTP_PORT + path)).GET()
+                .header("X-API-KEY", apiKey).build();
+    }
+
+    private static void stubFirstAttemptFailing(String url, ResponseDefinitionBuilder failure) {
+        raasMock.stubFor(get(url).inScenario("retry").whenScenarioStateIs(STARTED)
+                .willReturn(failure).willSetStateTo("failed"));
+        raasMock.stubFor(get(url).inScenario("retry").whenScenarioStateIs("failed").willReturn(ok("done")));
+    }
+
+    private static HttpRequest postRequest() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + HTTP_PORT + "/tree"))
+                .POST(BodyPublishers.ofString("{}")).build();
+    }
+
+
+    @Test
+    public void should_Default_To_HTTP2_With_A_Connect_Timeout() {
+        RaaSTransport transport = new RaaSTransport();
+        HttpClient client = transport.getHttpClient();
+
+        assertEquals(HttpClient.Version.HTTP_2, client.version());
+        assertEquals(Duration.ofSeconds(10), client.connectTimeout().get());
+        assertFalse(client.executor().isPresent());
+    }
+
+    @Test
+    public void should_Apply_Supplied_Options_To_The_HTTP_Client() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RaaSOptions options = new RaaSOptions()
+                    .setHttpVersion(HttpClient.Version.HTTP_1_1)
+                    .setConnectTimeout(Duration.ofMillis(500))
+                    .setExecutor(executor);
+
+            HttpClient client = new RaaSTransport(options).getHttpClient();
+
+            assertEquals(HttpClient.Version.HTTP_1_1, client.version());
+            assertEquals(Duration.ofMillis(500), client.connectTimeout().get());
+            assertTrue(client.executor().isPresent());
+            assertSame(executor, client.executor().get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void should_Allow_No_Connect_Timeout() {
+        RaaSOptions options = new RaaSOptions().setConnectTimeout(null);
+
+        HttpClient client = new RaaSTransport(options).getHttpClient();
+
+        assertFalse(client.connectTimeout().isPresent());
+    }
+
+    @Test
+    public void should_Retry_GET_After_Transient_Failure() throws Exception {
+        stubFirstAttemptFailing("/tree/123", serviceUnavailable());
+
+        var response = new RaaSTransport(fastRetries()).send(getRequest()).get();
+
+        assertEquals(200, response.statusCode());
+        assertEquals("done", response.body());
+        raasMock.verify(2, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Honor_Retry_After() throws Exception {
+        stubFirstAttemptFailing("/tree/123", aResponse().withStatus(429).withHeader("Retry-After", "1"));
+        RaaSOptions options = new RaaSOptions()
+                .setRetryPolicy(new RetryPolicy().setBackoff(Duration.ofMillis(1), Duration.ofSeconds(2)));
+
+        long start = System.nanoTime();
+        var response = new RaaSTransport(options).send(getRequest()).get();
+
+        assertEquals(200, response.statusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(900)) >= 0);
+    }
+
+    @Test
+    public void should_Not_Retry_When_Retry_After_Exceeds_Max_Backoff() throws Exception {
+        stubFirstAttemptFailing("/tree/123", aResponse().withStatus(503).withHeader("Retry-After", "120"));
+
+        var response = new RaaSTransport(fastRetries()).send(getRequest()).get();
+
+        assertEquals(503, response.statusCode());
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Stop_After_Max_Attempts() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(serviceUnavailable()));
+
+        var response = new RaaSTransport(fastRetries()).send(getRequest()).get();
+
+        assertEquals(503, response.statusCode());
+        raasMock.verify(3, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Not_Retry_Client_Errors() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(aResponse().withStatus(404)));
+
+        var response = new RaaSTransport(fastRetries()).send(getRequest()).get();
+
+        assertEquals(404, response.statusCode());
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Only_Retry_POST_When_Enabled() throws Exception {
+        raasMock.stubFor(post("/tree").willReturn(serviceUnavailable()));
+
+        new RaaSTransport(fastRetries()).send(postRequest()).get();
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")));
+
+        RaaSOptions options = fastRetries();
+        options.getRetryPolicy().setRetryPosts(true);
+        new RaaSTransport(options).send(postRequest()).get();
+        raasMock.verify(4, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Stop_Retrying_When_Budget_Is_Spent() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(serviceUnavailable()));
+        RaaSOptions options = fastRetries();
+        options.getRetryPolicy().setRetryBudget(0, 2);
+        RaaSTransport transport = new RaaSTransport(options);
+
+        transport.send(getRequest()).get();
+        transport.send(getRequest()).get();
+
+        // Two retries for the first request, none left for the second.
+        raasMock.verify(4, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Parse_Retry_After_In_Seconds_Or_As_A_Date() {
+        assertEquals(3000, Retrier.parseRetryAfter(" 3 "));
+        assertEquals(0, Retrier.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertEquals(-1, Retrier.parseRetryAfter("soon"));
+    }
+
+    @Test
+    public void should_Fail_Fast_When_Rate_Limit_Reached() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(ok()));
+        RaaSOptions options = new RaaSOptions()
+                .setRateLimit(new RateLimit(0.1, 1).setMode(RateLimit.Mode.FAIL_FAST));
+        RaaSTransport transport = new RaaSTransport(options);
+
+        assertEquals(200, transport.send(getRequest()).get().statusCode());
+        var ex = assertThrows(ExecutionException.class, () -> transport.send(getRequest()).get());
+        assertTrue(ex.getCause() instanceof RaaSRateLimitedException);
+
+        // Each API key has its own bucket.
+        assertEquals(200, transport.send(getRequest("/tree/123", "Other")).get().statusCode());
+        raasMock.verify(2, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Wait_For_A_Permit_Without_Failing() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(ok()));
+        raasMock.stubFor(get("/enterprise/123").willReturn(ok()));
+        RaaSOptions options = new RaaSOptions()
+                .setRateLimit("/tree", new RateLimit(20, 1));
+        RaaSTransport transport = new RaaSTransport(options);
+
+        long start = System.nanoTime();
+        var first = transport.send(getRequest());
+        var second = transport.send(getRequest());
+        var third = transport.send(getRequest());
+        assertEquals(200, transport.send(getRequest("/enterprise/123", "Junit")).get().statusCode());
+        assertEquals(200, first.get().statusCode());
+        assertEquals(200, second.get().statusCode());
+        assertEquals(200, third.get().statusCode());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(100)) >= 0);
+    }
+
+    @Test
+    public void should_Derive_Endpoint_From_First_Path_Segment() {
+        assertEquals("/tree", RaaSTransport.endpoint(getRequest()));
+        assertEquals("/enterprise", RaaSTransport.endpoint(getRequest("/enterprise/1/treeCount/2022-05", "k")));
+        assertEquals("/tree", RaaSTransport.endpoint(getRequest("/tree", "k")));
+    }
+
+    @Test
+    public void should_Fail_Fast_While_Circuit_Is_Open() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(serviceUnavailable()));
+        RaaSOptions options = new RaaSOptions()
+                .setRetryPolicy(null)
+                .setCircuitBreaker(new CircuitBreakerPolicy().setWindow(2, 2));
+        RaaSTransport transport = new RaaSTransport(options);
+
+        assertEquals(503, transport.send(getRequest()).get().statusCode());
+        assertEquals(503, transport.send(getRequest()).get().statusCode());
+        assertEquals(CircuitBreakerState.OPEN, transport.getCircuitBreakerState());
+
+        var ex = assertThrows(ExecutionException.class, () -> transport.send(getRequest()).get());
+        assertTrue(ex.getCause() instanceof RaaSCircuitOpenException);
+        raasMock.verify(2, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Not_Hold_The_Half_Open_Probe_While_Waiting_For_A_Permit() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(serviceUnavailable()));
+        RaaSOptions options = new RaaSOptions()
+                .setRetryPolicy(null)
+                .setRateLimit(new RateLimit(1, 1))
+                .setCircuitBreaker(new CircuitBreakerPolicy().setWindow(2, 2)
+                        .setOpenDuration(Duration.ofMillis(100), 1));
+        RaaSTransport transport = new RaaSTransport(options);
+
+        assertEquals(503, transport.send(getRequest("/tree/123", "First")).get().statusCode());
+        assertEquals(503, transport.send(getRequest("/tree/123", "Second")).get().statusCode());
+        assertEquals(CircuitBreakerState.OPEN, transport.getCircuitBreakerState());
+        raasMock.stubFor(get("/tree/123").willReturn(ok()));
+        Thread.sleep(200);
+
+        // Waits about a second for its key's next permit, without taking the breaker's only probe.
+        var waiting = transport.send(getRequest("/tree/123", "First"));
+        assertEquals(200, transport.send(getRequest("/tree/123", "Third")).get().statusCode());
+        assertEquals(200, waiting.get().statusCode());
+        assertEquals(CircuitBreakerState.CLOSED, transport.getCircuitBreakerState());
+    }
+
+    @Test
+    public void should_Hedge_Slow_GET_With_A_Duplicate() throws Exception {
+        raasMock.stubFor(get("/tree/123").inScenario("hedge").whenScenarioStateIs(STARTED)
+                .willReturn(ok("slow").withFixedDelay(5000)).willSetStateTo("hedged"));
+        raasMock.stubFor(get("/tree/123").inScenario("hedge").whenScenarioStateIs("hedged").willReturn(ok("fast")));
+        RaaSTransport transport = new RaaSTransport(
+                new RaaSOptions().setHedgePolicy(new HedgePolicy().setDelay(Duration.ofMillis(50))));
+
+        long start = System.nanoTime();
+        assertEquals("fast", transport.send(getRequest()).get().body());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+        raasMock.verify(2, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Not_Count_The_Cancelled_Hedge_Loser_As_A_Failure() throws Exception {
+        raasMock.stubFor(get("/tree/123").inScenario("hedge").whenScenarioStateIs(STARTED)
+                .willReturn(ok("slow").withFixedDelay(1000)).willSetStateTo("hedged"));
+        raasMock.stubFor(get("/tree/123").inScenario("hedge").whenScenarioStateIs("hedged").willReturn(ok("fast")));
+        RaaSMetrics metrics = new RaaSMetrics();
+        RaaSTransport transport = new RaaSTransport(new RaaSOptions().setMetricsListener(metrics)
+                .setHedgePolicy(new HedgePolicy().setDelay(Duration.ofMillis(50))));
+
+        assertEquals("fast", transport.send(getRequest()).get().body());
+
+        // Newer HTTP clients abort the cancelled exchange; JDK 11 lets it run to completion.
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(4);
+        while (metrics.getInFlight() > 0 && System.nanoTime() - end < 0) {
+            Thread.sleep(1);
+        }
+        EndpointStats stats = metrics.getEndpoint("/tree");
+        assertEquals(2, stats.getRequests());
+        assertEquals(0, stats.getFailures());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void should_Send_Asynchronously_Within_Blocking_On_A_Platform_Thread() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(ok("planted").withFixedDelay(200)));
+        RaaSTransport transport = new RaaSTransport();
+
+        CompletableFuture<HttpResponse<String>> response = RaaSTransport.blocking(() -> transport.send(getRequest()));
+
+        assertFalse(response.isDone());
+        assertEquals("planted", response.get().body());
+    }
+
+    @Test
+    public void should_Not_Hedge_POST() throws Exception {
+        raasMock.stubFor(post("/tree").willReturn(ok().withFixedDelay(200)));
+        RaaSTransport transport = new RaaSTransport(
+                new RaaSOptions().setHedgePolicy(new HedgePolicy().setDelay(Duration.ofMillis(10))));
+
+        assertEquals(200, transport.send(postRequest()).get().statusCode());
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Report_A_Request_Timeout_As_A_RaaSTimeoutException() {
+        raasMock.stubFor(get("/tree/123").willReturn(ok().withFixedDelay(2000)));
+        RaaSTransport transport = new RaaSTransport(new RaaSOptions().setRetryPolicy(null));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + HTTP_PORT + "/tree/123"))
+                .GET().timeout(Duration.ofMillis(100)).build();
+
+        var ex = assertThrows(ExecutionException.class, () -> transport.send(request).get());
+
+        assertTrue(ex.getCause() instanceof RaaSTimeoutException);
+        assertTrue(ex.getCause().getCause() instanceof HttpTimeoutException);
+    }
+
+    @Test
+    public void should_Stop_Retrying_When_The_Deadline_Passes() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(serviceUnavailable().withFixedDelay(100)));
+        RaaSOptions options = fastRetries();
+        options.getRetryPolicy().setMaxAttempts(20).setRetryBudget(1, 20);
+        RaaSTransport transport = new RaaSTransport(options);
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        try (Deadline deadline = Deadline.within(Duration.ofMillis(300))) {
+            response = transport.send(getRequest());
+        }
+        var ex = assertThrows(ExecutionException.class, () -> response.get());
+
+        assertTrue(ex.getCause() instanceof RaaSTimeoutException);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        int requests = raasMock.findAll(getRequestedFor(urlEqualTo("/tree/123"))).size();
+        assertTrue(requests < 20);
+        Thread.sleep(300);
+        raasMock.verify(requests, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Cancel_The_Deadline_Timer_When_The_Call_Completes() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(ok()));
+        AtomicInteger tasks = new AtomicInteger();
+        ExecutorService pool = Executors.newCachedThreadPool();
+        RaaSTransport transport = new RaaSTransport(new RaaSOptions().setExecutor(task -> {
+            tasks.incrementAndGet();
+            pool.execute(task);
+        }));
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        try (Deadline deadline = Deadline.within(Duration.ofSeconds(1))) {
+            response = transport.send(getRequest());
+        }
+        assertEquals(200, response.get().statusCode());
+        Thread.sleep(50);
+        int beforeDeadline = tasks.get();
+
+        // An expired timer hands its task to the executor; a cancelled one never fires.
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(start + TimeUnit.MILLISECONDS.toNanos(1300) - System.nanoTime()));
+        assertEquals(beforeDeadline, tasks.get());
+        pool.shutdown();
+    }
+
+    @Test
+    public void should_Not_Wait_For_A_Permit_Past_The_Deadline() throws Exception {
+        raasMock.stubFor(get("/tree/123").willReturn(ok()));
+        RaaSTransport transport = new RaaSTransport(new RaaSOptions().setRateLimit(new RateLimit(1, 1)));
+
+        try (Deadline deadline = Deadline.within(Duration.ofMillis(100))) {
+            assertEquals(200, transport.send(getRequest()).get().statusCode());
+            var ex = assertThrows(ExecutionException.class, () -> transport.send(getRequest()).get());
+            assertTrue(ex.getCause() instanceof RaaSTimeoutException);
+        }
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/123")));
+    }
+
+    @Test
+    public void should_Cap_The_Request_Timeout_At_The_Innermost_Deadline() {
+        RequestTemplate template = new RequestTemplate("http://localhost", "/tree", "key", Duration.ofSeconds(30));
+        assertEquals(Duration.ofSeconds(30), template.newRequest(template.baseUri()).build().timeout().get());
+
+        try (Deadline outer = Deadline.within(Duration.ofSeconds(5));
+                Deadline inner = Deadline.within(Duration.ofSeconds(10))) {
+            Duration timeout = template.newRequest(template.baseUri()).build().timeout().get();
+            assertTrue(timeout.compareTo(Duration.ofSeconds(5)) <= 0);
+            assertTrue(timeout.compareTo(Duration.ofSeconds(4)) > 0);
+        }
+        assertNull(Deadline.current());
+    }
+}
@@ -0,0 +1,67 @@
+package com.digitalhumani.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digitalhumani.config.RateLimit;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void should_Allow_A_Burst_Then_Make_Callers_Wait() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(10, 3), this.nanoTime::get);
+
+        assertEquals(0, limiter.acquire());
+        assertEquals(0, limiter.acquire());
+        assertEquals(0, limiter.acquire());
+        assertEquals(100 * MILLIS, limiter.acquire());
+        assertEquals(200 * MILLIS, limiter.acquire());
+    }
+
+    @Test
+    public void should_Refill_Over_Time() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(10, 2), this.nanoTime::get);
+        limiter.acquire();
+        limiter.acquire();
+
+        this.nanoTime.addAndGet(100 * MILLIS);
+        assertEquals(0, limiter.acquire());
+        assertEquals(100 * MILLIS, limiter.acquire());
+
+        // A long quiet period refills the bucket, but never beyond the burst.
+        this.nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertEquals(0, limiter.acquire());
+        assertEquals(0, limiter.acquire());
+        assertEquals(100 * MILLIS, limiter.acquire());
+    }
+
+    @Test
+    public void should_Reject_Instead_Of_Waiting_When_Failing_Fast() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(10, 1).setMode(RateLimit.Mode.FAIL_FAST),
+                this.nanoTime::get);
+
+        assertEquals(0, limiter.acquire());
+        assertEquals(RateLimiter.REJECTED, limiter.acquire());
+
+        this.nanoTime.addAndGet(100 * MILLIS);
+        assertEquals(0, limiter.acquire());
+    }
+
+    @Test
+    public void should_Reject_When_Wait_Exceeds_Max_Wait() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(10, 1).setMaxWait(Duration.ofMillis(150)),
+                this.nanoTime::get);
+
+        assertEquals(0, limiter.acquire());
+        assertEquals(100 * MILLIS, limiter.acquire());
+        assertEquals(RateLimiter.REJECTED, limiter.acquire());
+    }
+}
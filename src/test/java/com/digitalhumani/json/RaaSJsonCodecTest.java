@@ -0,0 +1,103 @@
+package com.digitalhumani.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import com.digitalhumani.enterprise.models.TreesPlantedForMonth;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+public class RaaSJsonCodecTest {
+
+    private final RaaSJsonCodec codec = new RaaSJsonCodec();
+
+    @Test
+    public void should_Write_Compact_JSON_For_TreePlantingRequest() throws Exception {
+        TreePlantingRequest request = new TreePlantingRequest("123", "456", "JUnit", 3);
+
+        String actual = new String(this.codec.write(request), StandardCharsets.UTF_8);
+
+        assertEquals("{\"enterpriseId\":\"123\",\"projectId\":\"456\",\"user\":\"JUnit\",\"treeCount\":3}", actual);
+    }
+
+    @Test
+    public void should_Escape_Strings_When_Writing() throws Exception {
+        String user = "quote\" slash\\ newline\n tab\t control\u0001 accenté euro€ emoji🌳";
+        TreePlantingRequest request = new TreePlantingRequest("123", "456", user, 1);
+
+        String actual = new String(this.codec.write(request), StandardCharsets.UTF_8);
+
+        JSONAssert.assertEquals(new String(new JacksonJsonCodec().write(request), StandardCharsets.UTF_8), actual, true);
+        assertEquals(user, new JacksonJsonCodec().read(actual, UserOnly.class).user);
+    }
+
+    @Test
+    public void should_Throw_IOException_When_Required_Field_Is_Missing() {
+        TreePlantingRequest request = new TreePlantingRequest("123", null, "JUnit", 1);
+
+        IOException exception = assertThrows(IOException.class, () -> this.codec.write(request));
+        assertEquals("Missing required field 'projectId'", exception.getMessage());
+    }
+
+    @Test
+    public void should_Read_TreesPlanted() throws Exception {
+        String json = "{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\", \"created\": \"2019-05-17T00:36:25.797Z\", "
+                + "\"treeCount\": 12, \"enterpriseId\": \"123\", \"projectId\": \"456\", \"user\": \"J\\u00e9\\\"\" }";
+
+        TreesPlanted result = this.codec.read(json, TreesPlanted.class);
+
+        assertEquals("eef9f369-9ae0-45b8-ab07-10650f53a71e", result.getUUId());
+        assertEquals(Instant.parse("2019-05-17T00:36:25.797Z"), result.getCreated().toInstant());
+        assertEquals(12, result.getTreeCount());
+        assertEquals("123", result.getEnterpriseId());
+        assertEquals("456", result.getProjectId());
+        assertEquals("Jé\"", result.getUser());
+    }
+
+    @Test
+    public void should_Skip_Unknown_Fields_And_Accept_Nulls() throws Exception {
+        String json = "{\"uuid\":null,\"extra\":{\"nested\":[1,{\"a\":\"}\"}],\"b\":true},\"treeCount\":2,\"other\":-1.5e3}";
+
+        TreesPlanted result = this.codec.read(json, TreesPlanted.class);
+
+        assertNull(result.getUUId());
+        assertEquals(2, result.getTreeCount());
+    }
+
+    @Test
+    public void should_Read_TreesPlantedForMonth() throws Exception {
+        TreesPlantedForMonth result = this.codec.read("{\"count\": 200}", TreesPlantedForMonth.class);
+
+        assertEquals(200, result.getTotalTrees());
+    }
+
+    @Test
+    public void should_Throw_IOException_For_Invalid_JSON() {
+        assertThrows(IOException.class, () -> this.codec.read("Foo", TreesPlanted.class));
+        assertThrows(IOException.class, () -> this.codec.read("{\"treeCount\": 1", TreesPlanted.class));
+        assertThrows(IOException.class, () -> this.codec.read("{\"treeCount\": 1.5}", TreesPlanted.class));
+        assertThrows(IOException.class, () -> this.codec.read("{\"count\": 1} x", TreesPlantedForMonth.class));
+        assertThrows(IOException.class, () -> this.codec.read("{\"created\": \"yesterday\"}", TreesPlanted.class));
+    }
+
+    @Test
+    public void should_Throw_IOException_For_Unsupported_Types() {
+        assertThrows(IOException.class, () -> this.codec.write("foo"));
+        assertThrows(IOException.class, () -> this.codec.read("{}", String.class));
+    }
+
+    static class UserOnly {
+        public String enterpriseId;
+        public String projectId;
+        public String user;
+        public Integer treeCount;
+    }
+}
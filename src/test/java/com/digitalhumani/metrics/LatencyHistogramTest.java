@@ -0,0 +1,76 @@
+package com.digitalhumani.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void should_Place_Every_Value_In_A_Bucket_Whose_Upper_Bound_Is_Within_A_Sixteenth() {
+        for (int i = 0; i < 100_000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(1L << ThreadLocalRandom.current().nextInt(1, 63));
+            long upperBound = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / 16, () -> value + " -> " + upperBound);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void should_Estimate_Percentiles_Within_A_Sixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 10_000; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000_000L, histogram.getMax());
+        assertEquals(5_000.5e6, histogram.getMean(), 1);
+        assertWithin(5_000e6, histogram.getPercentile(50));
+        assertWithin(9_900e6, histogram.getPercentile(99));
+        assertWithin(9_990e6, histogram.getPercentile(99.9));
+        assertEquals(10_000_000_000L, histogram.getPercentile(100));
+        assertWithin(1e6, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void should_Report_Zero_When_Empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+
+    @Test
+    public void should_Count_Every_Value_Recorded_Concurrently() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMax());
+    }
+
+    private static void assertWithin(double expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, () -> "expected about " + expected + " but was " + actual);
+    }
+}
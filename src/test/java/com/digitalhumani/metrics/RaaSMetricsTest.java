@@ -0,0 +1,84 @@
+package com.digitalhumani.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.Test;
+
+public class RaaSMetricsTest {
+
+    @Test
+    public void should_Record_Requests_Per_Endpoint() {
+        RaaSMetrics metrics = new RaaSMetrics();
+
+        metrics.requestStarted("/tree", "POST", 100);
+        metrics.requestStarted("/tree", "GET", 0);
+        metrics.requestStarted("/tree", "GET", 0);
+        metrics.requestStarted("/tree", "GET", 0);
+        assertEquals(4, metrics.getInFlight());
+
+        metrics.requestCompleted("/tree", "POST", 200, 2_000_000, 150);
+        metrics.requestCompleted("/tree", "GET", 404, 4_000_000, 10);
+        metrics.requestFailed("/tree", "GET", new IOException("Connection reset"), 1_000_000);
+        metrics.requestCancelled("/tree", "GET", 1_000_000);
+        metrics.parseFailed("/tree");
+
+        EndpointStats stats = metrics.getEndpoint("/tree");
+        assertEquals(4, stats.getRequests());
+        assertEquals(0, stats.getInFlight());
+        assertEquals(1, stats.getFailures());
+        assertEquals(1, stats.getParseFailures());
+        assertEquals(100, stats.getBytesSent());
+        assertEquals(160, stats.getBytesReceived());
+        assertEquals(Map.of(200, 1L, 404, 1L), stats.getStatusCodes());
+        assertEquals(4.0, stats.getMaxMillis());
+        assertEquals(3.0, stats.getMeanMillis());
+        assertNull(metrics.getEndpoint("/enterprise"));
+    }
+
+    @Test
+    public void should_Keep_In_Flight_Requests_When_Reset() {
+        RaaSMetrics metrics = new RaaSMetrics();
+
+        metrics.requestStarted("/tree", "POST", 100);
+        metrics.requestStarted("/tree", "POST", 100);
+        metrics.requestCompleted("/tree", "POST", 200, 2_000_000, 150);
+        metrics.reset();
+
+        EndpointStats stats = metrics.getEndpoint("/tree");
+        assertEquals(0, stats.getRequests());
+        assertEquals(1, stats.getInFlight());
+        assertTrue(stats.getStatusCodes().isEmpty());
+        assertEquals(0, stats.getP99Millis());
+    }
+
+    @Test
+    public void should_Expose_Metrics_Through_JMX() throws Exception {
+        RaaSMetrics metrics = new RaaSMetrics();
+        metrics.requestStarted("/tree", "POST", 100);
+        metrics.requestCompleted("/tree", "POST", 201, 2_000_000, 150);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean("junit");
+        try {
+            CompositeData[] endpoints = (CompositeData[]) server.getAttribute(name, "Endpoints");
+            assertEquals(1, endpoints.length);
+            assertEquals("/tree", endpoints[0].get("endpoint"));
+            assertEquals(1L, endpoints[0].get("requests"));
+            assertEquals(0L, server.getAttribute(name, "InFlight"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
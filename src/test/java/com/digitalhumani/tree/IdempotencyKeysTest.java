@@ -0,0 +1,74 @@
+package com.digitalhumani.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+
+public class IdempotencyKeysTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final IdempotencyKeys keys = new IdempotencyKeys(Duration.ofMinutes(1), 2, this.nanoTime::get);
+
+    private CompletableFuture<TreesPlanted> plant() {
+        int count = this.calls.incrementAndGet();
+        return CompletableFuture.completedFuture(new TreesPlanted("uuid-" + count, "123", "456", "JUnit", 1));
+    }
+
+    @Test
+    public void should_Serve_Duplicates_Within_The_Window_With_The_Original_Result() throws Exception {
+        assertEquals("uuid-1", this.keys.execute("a", this::plant).get().getUUId());
+        assertEquals("uuid-1", this.keys.execute("a", this::plant).get().getUUId());
+        assertEquals("uuid-2", this.keys.execute("b", this::plant).get().getUUId());
+
+        this.nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertEquals("uuid-3", this.keys.execute("a", this::plant).get().getUUId());
+    }
+
+    @Test
+    public void should_Share_A_Planting_In_Flight() throws Exception {
+        CompletableFuture<TreesPlanted> pending = new CompletableFuture<>();
+
+        var first = this.keys.execute("a", () -> pending);
+        var second = this.keys.execute("a", this::plant);
+        assertFalse(second.isDone());
+
+        pending.complete(new TreesPlanted("uuid-0", "123", "456", "JUnit", 1));
+
+        assertEquals("uuid-0", first.get().getUUId());
+        assertEquals("uuid-0", second.get().getUUId());
+        assertEquals(0, this.calls.get());
+    }
+
+    @Test
+    public void should_Forget_Failed_Plantings() throws Exception {
+        this.keys.execute("a", () -> CompletableFuture.completedFuture(new TreesPlanted(new RaaSException("foo"))));
+        assertThrows(RaaSException.class, () -> this.keys.execute("b", () -> {
+            throw new RaaSException("bar");
+        }));
+
+        assertEquals(0, this.keys.size());
+        assertEquals("uuid-1", this.keys.execute("a", this::plant).get().getUUId());
+    }
+
+    @Test
+    public void should_Forget_The_Oldest_Keys_When_Full() throws Exception {
+        this.keys.execute("a", this::plant);
+        this.keys.execute("b", this::plant);
+        this.keys.execute("c", this::plant);
+
+        assertEquals(2, this.keys.size());
+        assertEquals("uuid-4", this.keys.execute("a", this::plant).get().getUUId());
+    }
+}
@@ -0,0 +1,162 @@
+package com.digitalhumani.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import com.digitalhumani.tree.models.TreePlantingRequest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PlantingJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private static TreePlantingRequest request(int treeCount) {
+        return new TreePlantingRequest("123", "456", "user-" + treeCount, treeCount);
+    }
+
+    private static List<Integer> treeCounts(List<PlantingJournal.Record> records) {
+        return records.stream().map(record -> record.request.getTreeCount()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void should_Read_Requests_In_The_Order_They_Were_Appended() throws Exception {
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        journal.append(new TreePlantingRequest("123", "456", "Jürgen", 7, "event-1"));
+        journal.append(request(2));
+
+        List<PlantingJournal.Record> records = journal.read(10);
+
+        assertEquals(2, records.size());
+        assertEquals("123", records.get(0).request.getEnterpriseId());
+        assertEquals("456", records.get(0).request.getProjectId());
+        assertEquals("Jürgen", records.get(0).request.getUser());
+        assertEquals("event-1", records.get(0).request.getIdempotencyKey());
+        assertEquals(null, records.get(1).request.getIdempotencyKey());
+        assertEquals(List.of(7, 2), treeCounts(records));
+        assertTrue(journal.read(10).isEmpty());
+        assertFalse(journal.hasUnread());
+    }
+
+    @Test
+    public void should_Replay_Requests_After_The_Checkpoint_On_Restart() throws Exception {
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        for (int i = 1; i <= 5; i++) {
+            journal.append(request(i));
+        }
+        List<PlantingJournal.Record> records = journal.read(2);
+        journal.checkpoint(records.get(1).end);
+        journal.close();
+
+        PlantingJournal reopened = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        assertEquals(List.of(3, 4, 5), treeCounts(reopened.read(10)));
+
+        // Appending continues after the existing records.
+        reopened.append(request(6));
+        assertEquals(List.of(6), treeCounts(reopened.read(10)));
+    }
+
+    @Test
+    public void should_Roll_Over_Segments_And_Delete_Them_Once_Processed() throws Exception {
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        for (int i = 1; i <= 100; i++) {
+            journal.append(request(i));
+        }
+        assertTrue(journal.segmentCount() > 3);
+
+        List<PlantingJournal.Record> records = journal.read(100);
+        assertEquals(100, records.size());
+        assertEquals(100, records.get(99).request.getTreeCount());
+
+        journal.checkpoint(records.get(99).end);
+        assertEquals(1, journal.segmentCount());
+        try (var files = Files.list(this.directory)) {
+            assertEquals(2, files.count());
+        }
+
+        PlantingJournal reopened = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        assertTrue(reopened.read(10).isEmpty());
+    }
+
+    @Test
+    public void should_Ignore_A_Torn_Record_On_Restart() throws Exception {
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        journal.append(request(1));
+        journal.append(request(2));
+        int secondRecord = journal.read(1).get(0).end.offset;
+        journal.close();
+
+        // Corrupt the payload of the second record, as a crash part way through writing it might.
+        Path segment;
+        try (var files = Files.list(this.directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".journal")).findFirst().get();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), secondRecord + 10);
+        }
+
+        PlantingJournal reopened = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        assertEquals(List.of(1), treeCounts(reopened.read(10)));
+
+        reopened.append(request(3));
+        assertEquals(List.of(3), treeCounts(reopened.read(10)));
+    }
+
+    @Test
+    public void should_Read_Segments_Written_Before_Idempotency_Keys() throws Exception {
+        // A version 1 segment: no header, and records without an idempotency key.
+        ByteBuffer payload = ByteBuffer.allocate(64);
+        for (String field : List.of("123", "456", "legacy")) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            payload.putShort((short) bytes.length).put(bytes);
+        }
+        payload.putInt(4).flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.remaining());
+        record.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload).flip();
+        Files.write(this.directory.resolve("outbox-0000000000000000.journal"), record.array());
+
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        journal.append(new TreePlantingRequest("123", "456", "current", 5, "event-1"));
+        List<PlantingJournal.Record> records = journal.read(10);
+
+        assertEquals(List.of(4, 5), treeCounts(records));
+        assertEquals("legacy", records.get(0).request.getUser());
+        assertEquals(null, records.get(0).request.getIdempotencyKey());
+        assertEquals("event-1", records.get(1).request.getIdempotencyKey());
+        // New records are written to a new segment in the current format.
+        assertEquals(2, journal.segmentCount());
+
+        journal.checkpoint(records.get(0).end);
+        journal.close();
+        PlantingJournal reopened = new PlantingJournal(this.directory, SEGMENT_SIZE);
+        assertEquals(List.of(5), treeCounts(reopened.read(10)));
+    }
+
+    @Test
+    public void should_Reject_Requests_Missing_Required_Fields() throws Exception {
+        PlantingJournal journal = new PlantingJournal(this.directory, SEGMENT_SIZE);
+
+        assertThrows(IOException.class, () -> journal.append(new TreePlantingRequest("123", null, "user", 1)));
+        assertThrows(IOException.class, () -> journal.append(new TreePlantingRequest("123", "456", "user", null)));
+        assertFalse(journal.hasUnread());
+    }
+}
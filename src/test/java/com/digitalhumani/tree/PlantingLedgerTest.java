@@ -0,0 +1,85 @@
+package com.digitalhumani.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+
+public class PlantingLedgerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2022-05-20T12:00:00Z"), ZoneOffset.UTC);
+
+    private static TreesPlanted planted(TreePlantingRequest request) {
+        return new TreesPlanted("uuid", request.getEnterpriseId(), request.getProjectId(), request.getUser(),
+                request.getTreeCount());
+    }
+
+    @Test
+    public void should_Count_Trees_Planted_Per_Project_And_User() {
+        PlantingLedger ledger = new PlantingLedger(30, CLOCK);
+        TreePlantingRequest alice = new TreePlantingRequest("e", "forest", "alice", 3);
+        TreePlantingRequest bob = new TreePlantingRequest("e", "forest", "bob", 2);
+        TreePlantingRequest aliceElsewhere = new TreePlantingRequest("e", "mangrove", "alice", 5);
+
+        for (TreePlantingRequest request : new TreePlantingRequest[] { alice, bob, aliceElsewhere }) {
+            ledger.started(request);
+            ledger.completed(request, planted(request));
+        }
+
+        assertEquals(3, ledger.getTreesPlantedToday("e", "forest", "alice"));
+        assertEquals(5, ledger.getTreesPlantedToday("e", "forest", null));
+        assertEquals(8, ledger.getTreesPlantedToday("e", null, "alice"));
+        assertEquals(10, ledger.getTreesPlantedToday("e", null, null));
+        assertEquals(10, ledger.getTreesPlanted("e", null, null, YearMonth.of(2022, 5)));
+        assertEquals(0, ledger.getTreesPlanted("e", null, null, LocalDate.of(2022, 5, 19)));
+        assertEquals(0, ledger.getTreesPlantedToday("other", null, null));
+    }
+
+    @Test
+    public void should_Report_Trees_In_Flight_Separately_And_Not_Count_Failures() {
+        PlantingLedger ledger = new PlantingLedger(30, CLOCK);
+        TreePlantingRequest first = new TreePlantingRequest("e", "forest", "alice", 3);
+        TreePlantingRequest second = new TreePlantingRequest("e", "forest", "alice", 4);
+
+        ledger.started(first);
+        ledger.started(second);
+        assertEquals(7, ledger.getTreesInFlight("e", "forest"));
+        assertEquals(7, ledger.getTreesInFlight("e", null));
+        assertEquals(0, ledger.getTreesPlantedToday("e", "forest", null));
+
+        ledger.completed(first, new TreesPlanted(new RaaSException("boom")));
+        ledger.completed(second, null);
+        assertEquals(0, ledger.getTreesInFlight("e", "forest"));
+        assertEquals(0, ledger.getTreesPlantedToday("e", "forest", null));
+    }
+
+    @Test
+    public void should_Count_Trees_On_The_Day_They_Were_Created_And_Drop_Old_Days() {
+        PlantingLedger ledger = new PlantingLedger(2, CLOCK);
+        TreePlantingRequest request = new TreePlantingRequest("e", "forest", "alice", 3);
+        Date yesterday = Date.from(Instant.parse("2022-05-19T23:00:00Z"));
+        Date lastWeek = Date.from(Instant.parse("2022-05-13T10:00:00Z"));
+
+        ledger.completed(request, new TreesPlanted("a", "e", "forest", "alice", 3, yesterday));
+        ledger.completed(request, new TreesPlanted("b", "e", "forest", "alice", 3, lastWeek));
+        assertEquals(3, ledger.getTreesPlanted("e", null, null, LocalDate.of(2022, 5, 19)));
+        assertEquals(3, ledger.getTreesPlanted("e", null, null, LocalDate.of(2022, 5, 13)));
+
+        PlantingLedger nextDay = new PlantingLedger(2,
+                Clock.fixed(Instant.parse("2022-05-21T00:00:01Z"), ZoneOffset.UTC));
+        nextDay.completed(request, new TreesPlanted("b", "e", "forest", "alice", 3, lastWeek));
+        nextDay.completed(request, planted(request));
+        assertEquals(0, nextDay.getTreesPlanted("e", null, null, LocalDate.of(2022, 5, 13)));
+        assertEquals(3, nextDay.getTreesPlantedToday("e", null, null));
+    }
+}
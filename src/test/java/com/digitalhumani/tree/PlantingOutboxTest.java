@@ -0,0 +1,173 @@
+package com.digitalhumani.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PlantingOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<HttpResponse<String>> respond(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private PlantingOutbox.Sender recording(int status) {
+        return request -> {
+            this.sent.add(request.getUser());
+            return respond(status);
+        };
+    }
+
+    private PlantingOutbox open(PlantingOutbox.Sender sender) throws IOException {
+        return new PlantingOutbox(this.directory, 4, 3, sender, PlantingOutboxTest::encode, null);
+    }
+
+    private static byte[] encode(TreePlantingRequest request) {
+        return ("{\"user\":\n\"" + request.getUser() + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void should_Accept_Requests_Immediately_And_Send_Them_In_The_Background() throws Exception {
+        PlantingOutbox outbox = open(recording(200));
+
+        for (int i = 0; i < 10; i++) {
+            TreesPlanted accepted = outbox.add(new TreePlantingRequest("123", "456", "user-" + i, 1));
+            assertTrue(accepted.isSuccess());
+            assertNull(accepted.getUUId());
+            assertEquals("user-" + i, accepted.getUser());
+        }
+
+        await(() -> this.sent.size() == 10);
+        outbox.close();
+    }
+
+    @Test
+    public void should_Retry_Transient_Failures_And_Drop_Rejected_Requests() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        PlantingOutbox outbox = open(request -> {
+            if ("rejected".equals(request.getUser())) {
+                return respond(400);
+            }
+            return respond(attempts.incrementAndGet() < 3 ? 503 : 200);
+        });
+
+        outbox.add(new TreePlantingRequest("123", "456", "flaky", 1));
+        outbox.add(new TreePlantingRequest("123", "456", "rejected", 1));
+
+        await(() -> attempts.get() == 3 && outbox.getDropped() == 1);
+        outbox.close();
+    }
+
+    @Test
+    public void should_Move_Requests_To_The_Dead_Letters_After_The_Last_Attempt() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        PlantingOutbox outbox = new PlantingOutbox(this.directory, 1, 3, request -> {
+            if ("failing".equals(request.getUser())) {
+                attempts.incrementAndGet();
+                return respond(503);
+            }
+            return recording(request.getUser().equals("rejected") ? 400 : 200).send(request);
+        }, PlantingOutboxTest::encode, null);
+
+        outbox.add(new TreePlantingRequest("123", "456", "failing", 1, "key-\"1\""));
+        outbox.add(new TreePlantingRequest("123", "456", "rejected", 1));
+        outbox.add(new TreePlantingRequest("123", "456", "next", 1));
+
+        // The requests behind the failing one are still sent.
+        await(() -> this.sent.contains("next"));
+        assertEquals(3, attempts.get());
+        assertEquals(2, outbox.getDropped());
+        // Each dead letter keeps its idempotency key, so it can be sent again without planting twice.
+        assertEquals(List.of("{\"idempotencyKey\":\"key-\\\"1\\\"\",\"request\":{\"user\": \"failing\"}}",
+                "{\"idempotencyKey\":null,\"request\":{\"user\": \"rejected\"}}"),
+                Files.readAllLines(this.directory.resolve(PlantingOutbox.DEAD_LETTERS)));
+        outbox.close();
+    }
+
+    @Test
+    public void should_Keep_Sending_And_Checkpointing_While_A_Request_Backs_Off() throws Exception {
+        PlantingOutbox outbox = new PlantingOutbox(this.directory, 2, 3, request -> {
+            if ("stuck".equals(request.getUser())) {
+                return new CompletableFuture<>();
+            }
+            return recording(200).send(request);
+        }, PlantingOutboxTest::encode, null);
+
+        outbox.add(new TreePlantingRequest("123", "456", "first", 1));
+        outbox.add(new TreePlantingRequest("123", "456", "stuck", 1));
+        for (int i = 0; i < 5; i++) {
+            outbox.add(new TreePlantingRequest("123", "456", "user-" + i, 1));
+        }
+
+        // The other slot keeps sending, and the checkpoint moves up to the stuck request.
+        await(() -> this.sent.size() == 6);
+        await(() -> outbox.getCheckpointed() == 1);
+        outbox.close();
+    }
+
+    @Test
+    public void should_Send_Pending_Requests_After_Restart() throws Exception {
+        CompletableFuture<HttpResponse<String>> never = new CompletableFuture<>();
+        PlantingOutbox stalled = open(request -> never);
+        stalled.add(new TreePlantingRequest("123", "456", "first", 1));
+        stalled.add(new TreePlantingRequest("123", "456", "second", 1));
+        stalled.close();
+
+        PlantingOutbox restarted = open(recording(200));
+
+        await(() -> restarted.getCheckpointed() == 2);
+        assertEquals(List.of("first", "second"), this.sent);
+        restarted.close();
+
+        // Once sent, they are not sent again: the next request is the only one sent.
+        PlantingOutbox again = open(recording(200));
+        again.add(new TreePlantingRequest("123", "456", "third", 1));
+        await(() -> again.getCheckpointed() == 1);
+        assertEquals(List.of("first", "second", "third"), this.sent);
+        again.close();
+    }
+
+    @Test
+    public void should_Fail_Requests_That_Cannot_Be_Journaled() throws IOException {
+        PlantingOutbox outbox = open(recording(200));
+
+        TreesPlanted result = outbox.add(new TreePlantingRequest(null, "456", "user", 1));
+
+        assertFalse(result.isSuccess());
+        assertEquals("Unable to add tree planting request to the outbox.", result.getException().getMessage());
+        outbox.close();
+    }
+}
@@ -8,16 +8,53 @@ import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import com.digitalhumani.config.RaaSOptions;
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.exceptions.RaaSTimeoutException;
+import com.digitalhumani.http.Deadline;
+import com.digitalhumani.http.RaaSTransport;
+import com.digitalhumani.metrics.EndpointStats;
+import com.digitalhumani.metrics.RaaSMetrics;
+import com.digitalhumani.tree.interfaces.TreeLookupCallback;
+import com.digitalhumani.tree.models.BatchDeleteResult;
+import com.digitalhumani.tree.models.BatchLookupResult;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 public class RaaSTreePlanterTest  {
 
@@ -168,4 +205,415 @@ public class RaaSTreePlanterTest  {
         });
         future.get();
     }
+
+    @Test
+    public void should_Apply_Each_Callers_Deadline_Only_To_That_Caller_When_Sharing_A_Lookup() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+
+        raasMock.stubFor(get(String.format("/tree/%s", uuid))
+        .willReturn(okJson(String.format("{ \"uuid\": \"%s\", \"treeCount\": 1 }", uuid)).withFixedDelay(500)));
+
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        // The caller with the short deadline starts the lookup the other callers share.
+        CompletableFuture<TreesPlanted> hurried;
+        try (Deadline deadline = Deadline.within(Duration.ofMillis(100))) {
+            hurried = raasPlanter.getATreePlanted(uuid);
+        }
+        CompletableFuture<TreesPlanted> patient;
+        try (Deadline deadline = Deadline.within(Duration.ofSeconds(5))) {
+            patient = raasPlanter.getATreePlanted(uuid);
+        }
+        CompletableFuture<TreesPlanted> unhurried = raasPlanter.getATreePlanted(uuid);
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, hurried::get);
+        assertEquals(RaaSTimeoutException.class, timedOut.getCause().getClass());
+        assertEquals(uuid, patient.get().getUUId());
+        assertEquals(uuid, unhurried.get().getUUId());
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/" + uuid)));
+    }
+
+    @Test
+    public void should_Coalesce_Single_Tree_Requests_Into_One_Request() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String enterpriseId = "123";
+        String projectId = "123";
+        String user = "JUnit";
+        Integer treeCount = 5;
+
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": %s, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }", treeCount, enterpriseId, projectId, user)))
+            .willReturn(okJson(String.format("{ \"uuid\": \"%s\", \"treeCount\": %s, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }", uuid, treeCount, enterpriseId, projectId, user))));
+
+        RaaSOptions options = new RaaSOptions().setCoalescing(Duration.ofSeconds(30), treeCount);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        List<CompletableFuture<TreesPlanted>> futures = new ArrayList<>();
+        for (int i = 0; i < treeCount; i++) {
+            futures.add(raasPlanter.plantATree(enterpriseId, projectId, user));
+        }
+
+        for (CompletableFuture<TreesPlanted> future : futures) {
+            TreesPlanted result = future.get();
+            assertTrue(result.isSuccess());
+            assertEquals(uuid, result.getUUId());
+            assertEquals(treeCount, result.getTreeCount());
+        }
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Send_Coalesced_Requests_When_Window_Elapses() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String enterpriseId = "123";
+        String projectId = "123";
+        String user = "JUnit";
+
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 2, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }", enterpriseId, projectId, user)))
+            .willReturn(okJson(String.format("{ \"uuid\": \"%s\", \"treeCount\": 2, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }", uuid, enterpriseId, projectId, user))));
+
+        RaaSOptions options = new RaaSOptions().setCoalescing(Duration.ofMillis(50), 100);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        var first = raasPlanter.plantATree(enterpriseId, projectId, user);
+        var second = raasPlanter.plantATree(enterpriseId, projectId, user);
+
+        assertEquals(uuid, first.get().getUUId());
+        assertEquals(uuid, second.get().getUUId());
+        assertEquals(2, second.get().getTreeCount());
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Return_Per_Item_Results_For_Bulk_Planting() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String enterpriseId = "123";
+        String user = "JUnit";
+
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 3, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", enterpriseId, user)))
+            .willReturn(okJson(String.format("{ \"uuid\": \"%s\", \"treeCount\": 3, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", uuid, enterpriseId, user))));
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 3, \"enterpriseId\": \"%s\", \"projectId\": \"bad\", \"user\": \"%s\" }", enterpriseId, user)))
+            .willReturn(badRequest().withBody("foo")));
+
+        List<TreePlantingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new TreePlantingRequest(enterpriseId, i % 2 == 0 ? "good" : "bad", user, 3));
+        }
+
+        RaaSOptions options = new RaaSOptions().setMaxConcurrentRequests(3);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        BulkPlantingResult result = raasPlanter.plantTreesBulk(requests).get();
+
+        assertEquals(10, result.getResults().size());
+        assertEquals(5, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        assertEquals(15, result.getTreesPlanted());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 0, result.getResults().get(i).isSuccess());
+        }
+        raasMock.verify(10, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Record_Successful_Plantings_In_The_Ledger() throws Exception {
+        String enterpriseId = "123";
+        String user = "JUnit";
+
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 4, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", enterpriseId, user), true, true))
+            .willReturn(okJson(String.format("{ \"uuid\": \"uuid\", \"treeCount\": 4, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", enterpriseId, user))));
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 4, \"enterpriseId\": \"%s\", \"projectId\": \"bad\", \"user\": \"%s\" }", enterpriseId, user), true, true))
+            .willReturn(badRequest().withBody("foo")));
+
+        PlantingLedger ledger = new PlantingLedger();
+        RaaSOptions options = new RaaSOptions().setLedger(ledger);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        raasPlanter.plantSomeTrees(enterpriseId, "good", user, 4).get();
+        raasPlanter.plantSomeTrees(enterpriseId, "good", user, 4).get();
+        raasPlanter.plantSomeTrees(enterpriseId, "bad", user, 4).get();
+
+        assertEquals(8, ledger.getTreesPlantedToday(enterpriseId, "good", user));
+        assertEquals(8, ledger.getTreesPlantedToday(enterpriseId, null, null));
+        assertEquals(0, ledger.getTreesInFlight(enterpriseId, null));
+    }
+
+    @Test
+    public void should_Report_Found_Not_Found_And_Failed_Lookups_Separately() throws Exception {
+        raasMock.stubFor(get("/tree/found")
+            .willReturn(okJson("{ \"uuid\": \"found\", \"treeCount\": 1, \"enterpriseId\": \"123\", \"projectId\": \"456\", \"user\": \"JUnit\" }")));
+        raasMock.stubFor(get("/tree/missing").willReturn(notFound()));
+        raasMock.stubFor(get("/tree/broken").willReturn(serverError().withBody("foo")));
+
+        RaaSOptions options = new RaaSOptions().setMaxConcurrentRequests(2).setRetryPolicy(null);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        List<String> found = new CopyOnWriteArrayList<>();
+        List<String> missing = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        BatchLookupResult result = raasPlanter.getTreesPlanted(List.of("found", "missing", "broken", "found"),
+            new TreeLookupCallback() {
+                @Override
+                public void found(String uuid, TreesPlanted treesPlanted) {
+                    assertEquals(uuid, treesPlanted.getUUId());
+                    found.add(uuid);
+                }
+
+                @Override
+                public void notFound(String uuid) {
+                    missing.add(uuid);
+                }
+
+                @Override
+                public void failed(String uuid, RaaSException exception) {
+                    assertEquals("Failed to parse response from RaaS API.", exception.getMessage());
+                    failed.add(uuid);
+                }
+            }).get();
+
+        assertEquals(List.of("found", "found"), found);
+        assertEquals(List.of("missing"), missing);
+        assertEquals(List.of("broken"), failed);
+        assertEquals(2, result.getFound());
+        assertEquals(1, result.getNotFound());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    public void should_Return_Per_Uuid_Outcomes_For_Batch_Delete() throws Exception {
+        raasMock.stubFor(delete("/tree/one").willReturn(ok()));
+        raasMock.stubFor(delete("/tree/two").willReturn(ok()));
+        raasMock.stubFor(delete("/tree/missing").willReturn(notFound()));
+        raasMock.stubFor(delete("/tree/forbidden").willReturn(unauthorized()));
+
+        RaaSOptions options = new RaaSOptions().setMaxConcurrentRequests(2);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        BatchDeleteResult result = raasPlanter.deleteTreesPlanted(List.of("one", "missing", "two", "forbidden")).get();
+
+        assertEquals(4, result.getOutcomes().size());
+        assertEquals("missing", result.getOutcomes().get(1).getUuid());
+        assertEquals(404, result.getOutcomes().get(1).getStatusCode());
+        assertEquals(401, result.getOutcomes().get(3).getStatusCode());
+        assertTrue(result.getOutcomes().get(2).isSuccess());
+        assertEquals(2, result.getDeleted());
+        assertEquals(1, result.getNotFound());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    public void should_Publish_Per_Item_Results_For_Streamed_Planting() throws Exception {
+        String enterpriseId = "123";
+        String user = "JUnit";
+
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 2, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", enterpriseId, user)))
+            .willReturn(okJson(String.format("{ \"uuid\": \"uuid\", \"treeCount\": 2, \"enterpriseId\": \"%s\", \"projectId\": \"good\", \"user\": \"%s\" }", enterpriseId, user))));
+        raasMock.stubFor(post("/tree")
+            .withRequestBody(equalToJson(String.format("{ \"treeCount\": 2, \"enterpriseId\": \"%s\", \"projectId\": \"bad\", \"user\": \"%s\" }", enterpriseId, user)))
+            .willReturn(badRequest().withBody("foo")));
+
+        RaaSOptions options = new RaaSOptions().setMaxConcurrentRequests(2);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        List<TreesPlanted> results = new CopyOnWriteArrayList<>();
+        try (SubmissionPublisher<TreePlantingRequest> requests = new SubmissionPublisher<>()) {
+            CompletableFuture<Void> published = new CompletableFuture<>();
+            raasPlanter.plantTreesStream(requests).subscribe(new Flow.Subscriber<TreesPlanted>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(TreesPlanted item) {
+                    results.add(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    published.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    published.complete(null);
+                }
+            });
+            for (int i = 0; i < 6; i++) {
+                requests.submit(new TreePlantingRequest(enterpriseId, i % 2 == 0 ? "good" : "bad", user, 2));
+            }
+            requests.close();
+            published.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(6, results.size());
+        assertEquals(3, results.stream().filter(TreesPlanted::isSuccess).count());
+        raasMock.verify(6, postRequestedFor(urlEqualTo("/tree")));
+    }
+
+    @Test
+    public void should_Report_Requests_And_Parse_Failures_To_Metrics_Listener() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+
+        raasMock.stubFor(post("/tree").willReturn(okJson(String.format("{ \"uuid\": \"%s\", \"treeCount\": 1, \"enterpriseId\": \"123\", \"projectId\": \"123\", \"user\": \"JUnit\" }", uuid))));
+        raasMock.stubFor(get(String.format("/tree/%s", uuid)).willReturn(okJson("{ not json")));
+
+        RaaSMetrics metrics = new RaaSMetrics();
+        RaaSOptions options = new RaaSOptions().setMetricsListener(metrics);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(options), options);
+
+        assertTrue(raasPlanter.plantATree("123", "123", "JUnit").get().isSuccess());
+        assertFalse(raasPlanter.getATreePlanted(uuid).get().isSuccess());
+
+        EndpointStats stats = metrics.getEndpoint("/tree");
+        assertEquals(2, stats.getRequests());
+        assertEquals(0, stats.getInFlight());
+        assertEquals(1, stats.getParseFailures());
+        assertEquals(Map.of(200, 2L), stats.getStatusCodes());
+        assertTrue(stats.getBytesSent() > 0);
+        assertTrue(stats.getBytesReceived() > 0);
+        assertTrue(stats.getP50Millis() > 0);
+    }
+
+    @Test
+    public void should_Record_Flight_Recorder_Events_For_Each_Stage(@TempDir Path dir) throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String treesPlanted = String.format("{ \"uuid\": \"%s\", \"treeCount\": 1, \"enterpriseId\": \"123\", \"projectId\": \"123\", \"user\": \"JUnit\" }", uuid);
+
+        raasMock.stubFor(post("/tree").willReturn(okJson(treesPlanted)));
+
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        Path file = dir.resolve("raas.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("Serialize", "RequestBuild", "Send", "Parse")) {
+                recording.enable("com.digitalhumani." + event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            raasPlanter.plantATree("123", "123", "JUnit").get();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> events = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            events.put(event.getEventType().getName(), event);
+        }
+        assertEquals(4, events.size());
+        assertTrue(events.get("com.digitalhumani.Serialize").getLong("payloadSize") > 0);
+        assertEquals("POST", events.get("com.digitalhumani.RequestBuild").getString("method"));
+        assertEquals(200, events.get("com.digitalhumani.Send").getInt("status"));
+        assertEquals(treesPlanted.length(), events.get("com.digitalhumani.Send").getLong("bytesReceived"));
+        assertEquals("/tree", events.get("com.digitalhumani.Parse").getString("endpoint"));
+    }
+
+    @Test
+    public void should_Serve_Get_Tree_From_Cache_Until_Deleted() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String enterpriseId = "123";
+        String projectId = "123";
+        String user = "JUnit";
+        String treesPlanted = String.format("{ \"uuid\": \"%s\", \"treeCount\": 1, \"enterpriseId\": \"%s\", \"projectId\": \"%s\", \"user\": \"%s\" }", uuid, enterpriseId, projectId, user);
+
+        raasMock.stubFor(post("/tree").willReturn(okJson(treesPlanted)));
+        raasMock.stubFor(get(String.format("/tree/%s", uuid)).willReturn(okJson(treesPlanted)));
+        raasMock.stubFor(delete(String.format("/tree/%s", uuid)).willReturn(ok()));
+
+        RaaSOptions options = new RaaSOptions().setTreeCache(100, Duration.ofMinutes(5));
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        raasPlanter.plantATree(enterpriseId, projectId, user).get();
+        assertEquals(uuid, raasPlanter.getATreePlanted(uuid).get().getUUId());
+        assertEquals(uuid, raasPlanter.getATreePlanted(uuid).get().getUUId());
+        raasMock.verify(0, getRequestedFor(urlEqualTo("/tree/" + uuid)));
+
+        assertTrue(raasPlanter.deleteATreePlanted(uuid).get());
+        assertEquals(uuid, raasPlanter.getATreePlanted(uuid).get().getUUId());
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/" + uuid)));
+    }
+
+    @Test
+    public void should_Send_One_Request_For_Concurrent_Identical_Get_Tree() throws Exception {
+        String uuid = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+        String treesPlanted = String.format("{ \"uuid\": \"%s\", \"treeCount\": 1, \"enterpriseId\": \"123\", \"projectId\": \"123\", \"user\": \"JUnit\" }", uuid);
+
+        raasMock.stubFor(get(String.format("/tree/%s", uuid)).willReturn(okJson(treesPlanted).withFixedDelay(200)));
+
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        List<CompletableFuture<TreesPlanted>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(raasPlanter.getATreePlanted(uuid));
+        }
+        for (CompletableFuture<TreesPlanted> future : futures) {
+            assertEquals(uuid, future.get().getUUId());
+        }
+        raasMock.verify(1, getRequestedFor(urlEqualTo("/tree/" + uuid)));
+    }
+
+    @Test
+    public void should_Accept_Plantings_Into_The_Outbox_And_Send_Them_Later(@TempDir Path outbox) throws Exception {
+        raasMock.stubFor(post("/tree").willReturn(okJson("{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\" }").withFixedDelay(200)));
+
+        RaaSOptions options = new RaaSOptions().setOutbox(outbox);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+
+        var future = raasPlanter.plantSomeTrees("123", "123", "JUnit", 3);
+        assertTrue(future.isDone());
+        assertTrue(future.get().isSuccess());
+        assertEquals(3, future.get().getTreeCount());
+
+        for (int i = 0; i < 100 && raasMock.findAll(postRequestedFor(urlEqualTo("/tree"))).isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree"))
+                .withRequestBody(equalToJson("{ \"treeCount\": 3, \"enterpriseId\": \"123\", \"projectId\": \"123\", \"user\": \"JUnit\" }")));
+    }
+
+    @Test
+    public void should_Plant_Once_Per_Idempotency_Key() throws Exception {
+        String treesPlanted = "{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\", \"treeCount\": 2, \"enterpriseId\": \"123\", \"projectId\": \"123\", \"user\": \"JUnit\" }";
+        raasMock.stubFor(post("/tree").willReturn(okJson(treesPlanted)));
+
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY);
+
+        TreesPlanted first = raasPlanter.plantTrees(new TreePlantingRequest("123", "123", "JUnit", 2, "event-42")).get();
+        TreesPlanted second = raasPlanter.plantTrees(new TreePlantingRequest("123", "123", "JUnit", 2, "event-42")).get();
+
+        assertEquals("eef9f369-9ae0-45b8-ab07-10650f53a71e", second.getUUId());
+        assertTrue(first == second);
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")).withHeader("Idempotency-Key", equalTo("event-42")));
+    }
+
+    @Test
+    public void should_Not_Send_An_Idempotency_Key_When_None_Supplied_By_Default() throws Exception {
+        raasMock.stubFor(post("/tree").willReturn(okJson("{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\" }")));
+
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY);
+        raasPlanter.plantSomeTrees("123", "123", "JUnit", 2).get();
+
+        raasMock.verify(1, postRequestedFor(urlEqualTo("/tree")).withoutHeader("Idempotency-Key"));
+    }
+
+    @Test
+    public void should_Generate_An_Idempotency_Key_When_None_Supplied_If_Enabled() throws Exception {
+        raasMock.stubFor(post("/tree").willReturn(okJson("{ \"uuid\": \"eef9f369-9ae0-45b8-ab07-10650f53a71e\" }")));
+
+        RaaSOptions options = new RaaSOptions().setGenerateIdempotencyKeys(true);
+        RaaSTreePlanter raasPlanter = new RaaSTreePlanter("http://localhost:" + HTTP_PORT, X_API_KEY, new RaaSTransport(), options);
+        raasPlanter.plantSomeTrees("123", "123", "JUnit", 2).get();
+        raasPlanter.plantSomeTrees("123", "123", "JUnit", 2).get();
+
+        var requests = raasMock.findAll(postRequestedFor(urlEqualTo("/tree")));
+        assertEquals(2, requests.size());
+        String firstKey = requests.get(0).getHeader("Idempotency-Key");
+        assertEquals(36, firstKey.length());
+        assertFalse(firstKey.equals(requests.get(1).getHeader("Idempotency-Key")));
+    }
 }
@@ -2,6 +2,7 @@ package com.digitalhumani.tree;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -9,12 +10,14 @@ import static org.mockito.Mockito.when;
 
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 
 import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.json.JacksonJsonCodec;
 import com.digitalhumani.tree.models.TreePlantingRequest;
 import com.digitalhumani.tree.models.TreesPlanted;
 
@@ -43,6 +46,22 @@ public class TreePlanterHTTPHelperTest {
         JSONAssert.assertEquals(expected, actual, true);
     }
 
+    @Test
+    public void should_Return_Compact_JSON_Bytes_For_Valid_TreePlantingRequest() throws Exception {
+        String url = "http://foo.bar";
+        String apiKey = "key";
+
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper(url, apiKey);
+        TreePlantingRequest request = new TreePlantingRequest("123", "456", "JUnit", 2);
+
+        String actual = new String(helper.toJsonBytes(request), StandardCharsets.UTF_8);
+
+        assertFalse(actual.contains(" "));
+        assertFalse(actual.contains("\n"));
+        JSONAssert.assertEquals("{\"enterpriseId\":\"123\",\"projectId\":\"456\",\"user\":\"JUnit\",\"treeCount\":2}",
+                actual, true);
+    }
+
     @Test
     public void should_Throw_RaaSException_With_Invalid_TreePlantingRequest() {
         String url = "http://foo.bar";
@@ -76,6 +95,38 @@ public class TreePlanterHTTPHelperTest {
         assertEquals("POST", request.method());
     }
 
+    @Test
+    public void should_Build_A_Valid_HTTP_POST_Request_From_Bytes() {
+        String url = "http://foo.bar";
+        String apiKey = "key";
+        byte[] body = "{\"treeCount\":1}".getBytes(StandardCharsets.UTF_8);
+
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper(url, apiKey);
+        HttpRequest request = helper.buildPostRequest(body);
+
+        assertEquals("application/json", request.headers().firstValue("Content-Type").get());
+        assertEquals(url + "/tree", request.uri().toString());
+        assertEquals("POST", request.method());
+        assertEquals(body.length, request.bodyPublisher().get().contentLength());
+        assertFalse(request.headers().firstValue("Idempotency-Key").isPresent());
+    }
+
+    @Test
+    public void should_Send_Idempotency_Key_As_A_Header_Not_In_The_Body() throws Exception {
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper("http://foo.bar", "key");
+        TreePlantingRequest treeRequest = new TreePlantingRequest("123", "456", "JUnit", 2, "event-42");
+
+        byte[] body = helper.toJsonBytes(treeRequest);
+        HttpRequest request = helper.buildPostRequest(body, treeRequest.getIdempotencyKey());
+
+        assertEquals("event-42", request.headers().firstValue("Idempotency-Key").get());
+        String expected = "{\"enterpriseId\":\"123\",\"projectId\":\"456\",\"user\":\"JUnit\",\"treeCount\":2}";
+        JSONAssert.assertEquals(expected, new String(body, StandardCharsets.UTF_8), true);
+
+        TreePlanterHTTPHelper jacksonHelper = new TreePlanterHTTPHelper("http://foo.bar", "key", new JacksonJsonCodec());
+        JSONAssert.assertEquals(expected, new String(jacksonHelper.toJsonBytes(treeRequest), StandardCharsets.UTF_8), true);
+    }
+
     @Test
     public void should_Build_A_Valid_HTTP_GET_Request_With_Query_Params() {
         String url = "http://foo.bar";
@@ -261,4 +312,45 @@ public class TreePlanterHTTPHelperTest {
         assertFalse(result);
 
     }
+
+    @Test
+    public void should_Return_True_For_Any_2xx_HTTP_Code(){
+        String url = "http://foo.bar";
+        String apiKey = "key";
+
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper(url, apiKey);
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(204, 299, 199, 300);
+
+        assertTrue(helper.wasSuccess().apply(mockResponse));
+        assertTrue(helper.wasSuccess().apply(mockResponse));
+        assertFalse(helper.wasSuccess().apply(mockResponse));
+        assertFalse(helper.wasSuccess().apply(mockResponse));
+    }
+
+    @Test
+    public void should_Reuse_Response_Functions_Across_Calls() {
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper("http://foo.bar", "key");
+
+        assertSame(helper.parseResponse(), helper.parseResponse());
+        assertSame(helper.wasSuccess(), helper.wasSuccess());
+    }
+
+    @Test
+    public void should_Build_Independent_Requests_From_The_Same_Helper() {
+        String url = "http://foo.bar";
+        String apiKey = "key";
+
+        TreePlanterHTTPHelper helper = new TreePlanterHTTPHelper(url, apiKey);
+        HttpRequest first = helper.buildGetRequest(List.of("first"));
+        HttpRequest second = helper.buildDeleteRequest(List.of("second", "third"));
+
+        assertEquals(url + "/tree/first", first.uri().toString());
+        assertEquals("GET", first.method());
+        assertEquals(url + "/tree/second/third", second.uri().toString());
+        assertEquals("DELETE", second.method());
+        assertEquals(1, second.headers().allValues("X-API-KEY").size());
+    }
 }
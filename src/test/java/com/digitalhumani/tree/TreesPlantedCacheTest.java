@@ -0,0 +1,84 @@
+package com.digitalhumani.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+
+public class TreesPlantedCacheTest {
+
+    private static final String UUID_1 = "eef9f369-9ae0-45b8-ab07-10650f53a71e";
+    private static final String UUID_2 = "0c9b1d2e-6a55-4d8b-9f0e-2f1f5c3a9b10";
+    private static final String UUID_3 = "7d3c4b5a-1e2f-4a6b-8c9d-0e1f2a3b4c5d";
+
+    @Test
+    public void should_Return_Cached_TreesPlanted_By_UUID() {
+        TreesPlantedCache cache = new TreesPlantedCache(10, Duration.ofMinutes(1));
+        TreesPlanted treesPlanted = new TreesPlanted(UUID_1, "123", "456", "JUnit", 1);
+
+        cache.put(treesPlanted);
+
+        assertSame(treesPlanted, cache.get(UUID_1));
+        assertSame(treesPlanted, cache.get(UUID_1.toUpperCase()));
+        assertNull(cache.get(UUID_2));
+    }
+
+    @Test
+    public void should_Evict_Least_Recently_Used_When_Full() {
+        TreesPlantedCache cache = new TreesPlantedCache(2, Duration.ofMinutes(1));
+
+        cache.put(new TreesPlanted(UUID_1, "123", "456", "JUnit", 1));
+        cache.put(new TreesPlanted(UUID_2, "123", "456", "JUnit", 1));
+        cache.get(UUID_1);
+        cache.put(new TreesPlanted(UUID_3, "123", "456", "JUnit", 1));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(UUID_2));
+        assertEquals(UUID_1, cache.get(UUID_1).getUUId());
+        assertEquals(UUID_3, cache.get(UUID_3).getUUId());
+    }
+
+    @Test
+    public void should_Expire_Entries_After_TTL() {
+        AtomicLong now = new AtomicLong();
+        TreesPlantedCache cache = new TreesPlantedCache(10, Duration.ofSeconds(5), now::get);
+
+        cache.put(new TreesPlanted(UUID_1, "123", "456", "JUnit", 1));
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(UUID_1, cache.get(UUID_1).getUUId());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get(UUID_1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_Invalidate_Entries() {
+        TreesPlantedCache cache = new TreesPlantedCache(10, Duration.ofMinutes(1));
+
+        cache.put(new TreesPlanted(UUID_1, "123", "456", "JUnit", 1));
+        cache.invalidate(UUID_1);
+
+        assertNull(cache.get(UUID_1));
+    }
+
+    @Test
+    public void should_Ignore_Failed_Results_And_Invalid_UUIDs() {
+        TreesPlantedCache cache = new TreesPlantedCache(10, Duration.ofMinutes(1));
+
+        cache.put(new TreesPlanted(new RaaSException("foo")));
+        cache.put(new TreesPlanted("not-a-uuid", "123", "456", "JUnit", 1));
+        cache.put(null);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("not-a-uuid"));
+        assertNull(cache.get(null));
+    }
+}
@@ -0,0 +1,100 @@
+package com.digitalhumani.tree.interfaces;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.digitalhumani.exceptions.RaaSException;
+import com.digitalhumani.tree.models.BatchDeleteResult;
+import com.digitalhumani.tree.models.BatchLookupResult;
+import com.digitalhumani.tree.models.BulkPlantingResult;
+import com.digitalhumani.tree.models.TreePlantingRequest;
+import com.digitalhumani.tree.models.TreesPlanted;
+
+import org.junit.jupiter.api.Test;
+
+public class TreePlanterTest {
+
+    /**
+     * An implementation written against the original interface, with only the single-item methods.
+     */
+    private static final class SingleItemTreePlanter implements TreePlanter {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<TreesPlanted> plantATree(String enterpriseId, String projectId, String user) {
+            return plantSomeTrees(enterpriseId, projectId, user, 1);
+        }
+
+        @Override
+        public CompletableFuture<TreesPlanted> plantSomeTrees(String enterpriseId, String projectId, String user,
+                Integer treeCount) {
+            this.calls.add("plant " + user);
+            if ("rejected".equals(user)) {
+                return CompletableFuture.failedFuture(new RaaSException("Rejected."));
+            }
+            return CompletableFuture.completedFuture(
+                    new TreesPlanted("uuid-" + user, enterpriseId, projectId, user, treeCount));
+        }
+
+        @Override
+        public CompletableFuture<TreesPlanted> getATreePlanted(String uuid) {
+            this.calls.add("get " + uuid);
+            return CompletableFuture.completedFuture(uuid.equals("missing")
+                    ? new TreesPlanted(new RaaSException("Not found."))
+                    : new TreesPlanted(uuid, "123", "456", "user", 1));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deleteATreePlanted(String uuid) {
+            this.calls.add("delete " + uuid);
+            return CompletableFuture.completedFuture(!uuid.equals("missing"));
+        }
+    }
+
+    @Test
+    public void should_Plant_In_Bulk_With_The_Single_Item_Calls() throws Exception {
+        SingleItemTreePlanter planter = new SingleItemTreePlanter();
+
+        BulkPlantingResult result = planter.plantTreesBulk(List.of(
+                new TreePlantingRequest("123", "456", "first", 2),
+                new TreePlantingRequest("123", "456", "rejected", 1))).get();
+
+        assertEquals(List.of("plant first", "plant rejected"), planter.calls);
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals("Rejected.", result.getResults().get(1).getException().getMessage());
+    }
+
+    @Test
+    public void should_Look_Up_And_Delete_In_Batches_With_The_Single_Item_Calls() throws Exception {
+        SingleItemTreePlanter planter = new SingleItemTreePlanter();
+        List<String> found = new CopyOnWriteArrayList<>();
+
+        BatchLookupResult lookups = planter.getTreesPlanted(List.of("a", "missing"), new TreeLookupCallback() {
+            @Override
+            public void found(String uuid, TreesPlanted treesPlanted) {
+                found.add(uuid);
+            }
+
+            @Override
+            public void notFound(String uuid) {
+            }
+
+            @Override
+            public void failed(String uuid, RaaSException exception) {
+            }
+        }).get();
+        BatchDeleteResult deletes = planter.deleteTreesPlanted(List.of("a", "missing")).get();
+
+        assertEquals(List.of("a"), found);
+        assertEquals(1, lookups.getFound());
+        assertEquals(1, lookups.getFailed());
+        assertEquals(1, deletes.getDeleted());
+        assertEquals(1, deletes.getFailed());
+        assertEquals(List.of("get a", "get missing", "delete a", "delete missing"), planter.calls);
+        planter.close();
+    }
+}